@@ -0,0 +1,148 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.drost.annotation.Cascade;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+
+/**
+ * The verified beans shared by all benchmarks.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class Beans
+{
+	private Beans( )
+	{
+
+	}
+
+	/**
+	 * A typical bean with a few constraints of every kind.
+	 */
+	public static class Small
+	{
+		@NotNull
+		@MinSize(1)
+		@MaxSize(32)
+		String name = "benchmark";
+
+		@Interval(min=0, max=150)
+		int age = 42;
+
+		@Min(0)
+		long balance = 1000;
+
+		@MaxSize(8)
+		List<String> tags = new ArrayList<String>( );
+	}
+
+	/**
+	 * A bean with 64 constrained fields, one for each bit of a failure word.
+	 */
+	public static class Wide
+	{
+		@Min(0) int v00; @Min(0) int v01; @Min(0) int v02; @Min(0) int v03;
+		@Min(0) int v04; @Min(0) int v05; @Min(0) int v06; @Min(0) int v07;
+		@Max(9) long v08; @Max(9) long v09; @Max(9) long v10; @Max(9) long v11;
+		@Max(9) long v12; @Max(9) long v13; @Max(9) long v14; @Max(9) long v15;
+		@Interval(min=0, max=1) double v16; @Interval(min=0, max=1) double v17;
+		@Interval(min=0, max=1) double v18; @Interval(min=0, max=1) double v19;
+		@Interval(min=0, max=1) double v20; @Interval(min=0, max=1) double v21;
+		@Interval(min=0, max=1) double v22; @Interval(min=0, max=1) double v23;
+		@NotNull String v24 = ""; @NotNull String v25 = ""; @NotNull String v26 = ""; @NotNull String v27 = "";
+		@NotNull String v28 = ""; @NotNull String v29 = ""; @NotNull String v30 = ""; @NotNull String v31 = "";
+		@MaxSize(4) String v32 = ""; @MaxSize(4) String v33 = ""; @MaxSize(4) String v34 = "";
+		@MaxSize(4) String v35 = ""; @MaxSize(4) String v36 = ""; @MaxSize(4) String v37 = "";
+		@MaxSize(4) String v38 = ""; @MaxSize(4) String v39 = "";
+		@Min(0) Integer v40 = 0; @Min(0) Integer v41 = 0; @Min(0) Integer v42 = 0; @Min(0) Integer v43 = 0;
+		@Min(0) Integer v44 = 0; @Min(0) Integer v45 = 0; @Min(0) Integer v46 = 0; @Min(0) Integer v47 = 0;
+		@Min(0) short v48; @Min(0) short v49; @Min(0) short v50; @Min(0) short v51;
+		@Min(0) short v52; @Min(0) short v53; @Min(0) short v54; @Min(0) short v55;
+		@Max(1) float v56; @Max(1) float v57; @Max(1) float v58; @Max(1) float v59;
+		@Max(1) float v60; @Max(1) float v61; @Max(1) float v62; @Max(1) float v63;
+	}
+
+	/**
+	 * One node of a linked chain verified by cascading.
+	 */
+	public static class Deep
+	{
+		@Min(0)
+		int value;
+
+		@Cascade
+		Deep next;
+
+		/**
+		 * Creates a chain of the specified length.
+		 */
+		public static Deep chain( int length )
+		{
+			Deep head = new Deep( );
+			Deep tail = head;
+			for( int i = 1; i < length; i++ )
+			{
+				tail.next = new Deep( );
+				tail = tail.next;
+			}
+			return head;
+		}
+	}
+
+	/**
+	 * Numeric constraints on primitive fields.
+	 */
+	public static class Primitive
+	{
+		@Min(0)
+		int intValue = 1;
+
+		@Max(100)
+		long longValue = 1;
+
+		@Interval(min=0, max=1)
+		double doubleValue = 0.5;
+	}
+
+	/**
+	 * The same constraints as {@link Primitive} on boxed fields.
+	 */
+	public static class Boxed
+	{
+		@Min(0)
+		Integer intValue = 1;
+
+		@Max(100)
+		Long longValue = 1L;
+
+		@Interval(min=0, max=1)
+		Double doubleValue = 0.5;
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the allocation profiler enabled and writes the
+ * results as JSON, named by a label like the abbreviated commit hash:
+ * 
+ * <pre>
+ * java -jar benchmark/target/benchmarks.jar $(git rev-parse --short HEAD) [regex]
+ * </pre>
+ * 
+ * The files of two commits can be compared by any JMH result viewer.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class BenchmarkRunner
+{
+	private BenchmarkRunner( )
+	{
+
+	}
+
+	/**
+	 * @param args
+	 *            The label of the result file, by default {@code local},
+	 *            and optionally a regular expression selecting the
+	 *            benchmarks.
+	 * @throws RunnerException
+	 */
+	public static void main( String[] args ) throws RunnerException
+	{
+		String label = ( args.length > 0 ) ? args[0] : "local";
+		String include = ( args.length > 1 ) ? args[1] : BenchmarkRunner.class.getPackage( ).getName( ) + ".*";
+
+		Options options = new OptionsBuilder( ).include( include ).addProfiler( GCProfiler.class )
+				.resultFormat( ResultFormatType.JSON ).result( "jmh-result-" + label + ".json" ).build( );
+
+		new Runner( options ).run( );
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.drost.annotation.AVerification;
+
+/**
+ * Verifies from all available threads at once, to reveal contention on the
+ * shared plans and verificators.
+ * 
+ * @author kimschorat
+ *
+ */
+@BenchmarkMode( Mode.Throughput )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 2 )
+@Threads( Threads.MAX )
+public class ContentionBenchmark
+{
+	/**
+	 * One bean verified by all threads.
+	 */
+	@State( Scope.Benchmark )
+	public static class Shared
+	{
+		final Beans.Small bean = new Beans.Small( );
+	}
+
+	/**
+	 * One bean per thread.
+	 */
+	@State( Scope.Thread )
+	public static class Local
+	{
+		final Beans.Small bean = new Beans.Small( );
+	}
+
+	@Benchmark
+	public boolean sharedBean( Shared state ) throws Exception
+	{
+		return AVerification.verify( state.bean ).passedAll( );
+	}
+
+	@Benchmark
+	public boolean localBean( Local state ) throws Exception
+	{
+		return AVerification.verify( state.bean ).passedAll( );
+	}
+}
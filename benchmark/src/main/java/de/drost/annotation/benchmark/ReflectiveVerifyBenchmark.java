@@ -0,0 +1,38 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.benchmark;
+
+import org.openjdk.jmh.annotations.Fork;
+
+import de.drost.annotation.ClassVerificatorFactory;
+
+/**
+ * Runs the scenarios of {@link VerifyBenchmark} with all
+ * {@link ClassVerificatorFactory} backends disabled, so the generated
+ * verificators can be compared to the reflective evaluation.
+ * 
+ * @author kimschorat
+ *
+ */
+@Fork( value = 2, jvmArgsAppend = "-D" + ClassVerificatorFactory.ENABLED_PROPERTY + "=false" )
+public class ReflectiveVerifyBenchmark extends VerifyBenchmark
+{
+
+}
@@ -0,0 +1,196 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.benchmark;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+import de.drost.annotation.verification.IntervalVerificator;
+import de.drost.annotation.verification.MaxSizeVerificator;
+import de.drost.annotation.verification.MaxVerificator;
+import de.drost.annotation.verification.MinSizeVerificator;
+import de.drost.annotation.verification.MinVerificator;
+import de.drost.annotation.verification.NotNullVerificator;
+
+/**
+ * Measures each verificator alone, without reading any field.
+ * 
+ * @author kimschorat
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 2 )
+public class VerificatorBenchmark
+{
+	/**
+	 * Holds the annotation instances passed to the verificators.
+	 */
+	static class Annotations
+	{
+		@Min(0)
+		@Max(100)
+		@Interval(min=0, max=100)
+		@MinSize(1)
+		@MaxSize(16)
+		@NotNull
+		Object value;
+	}
+
+	final MinVerificator		min			= new MinVerificator( );
+	final MaxVerificator		max			= new MaxVerificator( );
+	final IntervalVerificator	interval	= new IntervalVerificator( );
+	final MinSizeVerificator	minSize		= new MinSizeVerificator( );
+	final MaxSizeVerificator	maxSize		= new MaxSizeVerificator( );
+	final NotNullVerificator	notNull		= new NotNullVerificator( );
+
+	Min							minAnnotation;
+	Max							maxAnnotation;
+	Interval					intervalAnnotation;
+	MinSize						minSizeAnnotation;
+	MaxSize						maxSizeAnnotation;
+	NotNull						notNullAnnotation;
+
+	int							intValue	= 42;
+	long						longValue	= 42;
+	double						doubleValue	= 42.5;
+	Integer						boxedInt	= 42;
+	Double						boxedDouble	= 42.5;
+	String						string		= "benchmark";
+	List<String>				list		= Arrays.asList( "a", "b", "c" );
+	String[]					array		= { "a", "b", "c" };
+
+	@Setup
+	public void setUp( ) throws NoSuchFieldException
+	{
+		java.lang.reflect.Field f = Annotations.class.getDeclaredField( "value" );
+		minAnnotation = f.getAnnotation( Min.class );
+		maxAnnotation = f.getAnnotation( Max.class );
+		intervalAnnotation = f.getAnnotation( Interval.class );
+		minSizeAnnotation = f.getAnnotation( MinSize.class );
+		maxSizeAnnotation = f.getAnnotation( MaxSize.class );
+		notNullAnnotation = f.getAnnotation( NotNull.class );
+	}
+
+	@Benchmark
+	public boolean minInt( )
+	{
+		return min.verify( intValue, minAnnotation );
+	}
+
+	@Benchmark
+	public boolean minLong( )
+	{
+		return min.verify( longValue, minAnnotation );
+	}
+
+	@Benchmark
+	public boolean minDouble( )
+	{
+		return min.verify( doubleValue, minAnnotation );
+	}
+
+	@Benchmark
+	public boolean minBoxed( )
+	{
+		return min.verify( boxedInt, minAnnotation );
+	}
+
+	@Benchmark
+	public boolean maxInt( )
+	{
+		return max.verify( intValue, maxAnnotation );
+	}
+
+	@Benchmark
+	public boolean maxBoxed( )
+	{
+		return max.verify( boxedDouble, maxAnnotation );
+	}
+
+	@Benchmark
+	public boolean intervalInt( )
+	{
+		return interval.verify( intValue, intervalAnnotation );
+	}
+
+	@Benchmark
+	public boolean intervalDouble( )
+	{
+		return interval.verify( doubleValue, intervalAnnotation );
+	}
+
+	@Benchmark
+	public boolean intervalBoxed( )
+	{
+		return interval.verify( boxedDouble, intervalAnnotation );
+	}
+
+	@Benchmark
+	public boolean minSizeString( )
+	{
+		return minSize.verify( string, minSizeAnnotation );
+	}
+
+	@Benchmark
+	public boolean maxSizeString( )
+	{
+		return maxSize.verify( string, maxSizeAnnotation );
+	}
+
+	@Benchmark
+	public boolean maxSizeList( )
+	{
+		return maxSize.verify( list, maxSizeAnnotation );
+	}
+
+	@Benchmark
+	public boolean maxSizeArray( )
+	{
+		return maxSize.verify( array, maxSizeAnnotation );
+	}
+
+	@Benchmark
+	public boolean notNull( )
+	{
+		return notNull.verify( string, notNullAnnotation );
+	}
+}
@@ -0,0 +1,124 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.drost.annotation.AVerification;
+import de.drost.annotation.AVerification.Result;
+
+/**
+ * Measures the entry points of {@link AVerification} on warm plans, using
+ * the verificator classes generated at runtime.
+ * 
+ * @author kimschorat
+ *
+ */
+@State( Scope.Thread )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 2 )
+public class VerifyBenchmark
+{
+	Beans.Small		small;
+	Beans.Small		invalid;
+	Beans.Wide		wide;
+	Beans.Deep		deep;
+	Beans.Primitive	primitive;
+	Beans.Boxed		boxed;
+
+	@Setup
+	public void setUp( )
+	{
+		small = new Beans.Small( );
+		invalid = new Beans.Small( );
+		invalid.name = null;
+		invalid.age = -1;
+		wide = new Beans.Wide( );
+		deep = Beans.Deep.chain( 100 );
+		primitive = new Beans.Primitive( );
+		boxed = new Beans.Boxed( );
+	}
+
+	@Benchmark
+	public boolean verifySmall( ) throws Exception
+	{
+		return AVerification.verify( small ).passedAll( );
+	}
+
+	@Benchmark
+	public boolean verifyWide( ) throws Exception
+	{
+		return AVerification.verify( wide ).passedAll( );
+	}
+
+	@Benchmark
+	public boolean verifyDeep( ) throws Exception
+	{
+		return AVerification.verifyCascading( deep ).passedAll( );
+	}
+
+	@Benchmark
+	public boolean verifyPrimitive( ) throws Exception
+	{
+		return AVerification.verify( primitive ).passedAll( );
+	}
+
+	@Benchmark
+	public boolean verifyBoxed( ) throws Exception
+	{
+		return AVerification.verify( boxed ).passedAll( );
+	}
+
+	/**
+	 * Includes the creation of the evaluations of a failed verification.
+	 */
+	@Benchmark
+	public int verifyInvalid( ) throws Exception
+	{
+		Result result = AVerification.verify( invalid );
+		return result.getEvaluations( ).size( );
+	}
+
+	@Benchmark
+	public boolean isValidSmall( ) throws Exception
+	{
+		return AVerification.isValid( small );
+	}
+
+	@Benchmark
+	public boolean isValidWide( ) throws Exception
+	{
+		return AVerification.isValid( wide );
+	}
+}
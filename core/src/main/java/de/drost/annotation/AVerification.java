@@ -0,0 +1,1237 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import de.drost.annotation.VerificationPlan.Property;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+import de.drost.annotation.support.Getter;
+
+/**
+ * Used to verify annotated elements at runtime, such as fields or methods.
+ * 
+ * @author kimschorat
+ *
+ */
+public class AVerification
+{
+	/**
+	 * Annotation types used to verify the content of class fields.
+	 * 
+	 * @deprecated All annotation types recognized by the
+	 *             {@link ConstraintRegistry} are verified, not only these.
+	 */
+	@Deprecated
+	public final static Class<?>[] FIELD_ANNOTATION_TYPES = { Interval.class, Max.class, Min.class, MaxSize.class,
+			MinSize.class, NotNull.class };
+
+	/**
+	 * The number of objects up to which {@link #verifyAll(Collection)}
+	 * verifies sequentially.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1024;
+
+	/**
+	 * Verifies specific annotations and evaluates them to a single
+	 * {@link Result} instance.
+	 * 
+	 * @param o
+	 *            The object to get checked for its annotated class fields.
+	 * @return A {@code VerificationResult} object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static Result verify( Object o ) throws InstantiationException, IllegalAccessException
+	{
+//		// Check whether the parameter needs to be verified or if it contains fields to be verified.
+//		for(Annotation a : o.getClass( ).getAnnotations( ) )
+//			System.out.println(a.annotationType( ));
+		
+		return verify( o, VerificationPlan.of( o.getClass( ) ), null );
+	}
+
+	/**
+	 * Verifies the annotations of the specified validation groups only. Each
+	 * combination of groups is compiled into a plan of its own, so annotations
+	 * of other groups are not evaluated at all.
+	 * 
+	 * @param o
+	 *            The object to get checked for its annotated class fields.
+	 * @param groups
+	 *            The groups to be verified, see {@link Default}.
+	 * @return A {@code VerificationResult} object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static Result verify( Object o, Class<?>... groups ) throws InstantiationException, IllegalAccessException
+	{
+		return verify( o, VerificationPlan.of( o.getClass( ), groups ), null );
+	}
+
+	/**
+	 * Verifies the specified object and all objects referenced by its fields
+	 * marked by {@link Cascade}, descending into arrays, {@link Iterable}s
+	 * and the values of {@link Map}s. The evaluations of nested objects are
+	 * named by their full property path like {@code items[3].price}.
+	 * <p>
+	 * Every object but an array is verified by its own constraints first,
+	 * even if it is an {@code Iterable} or a {@code Map}. The elements of
+	 * such objects are only verified if they are referenced by a
+	 * {@code Cascade} field or an enclosing container.
+	 * <p>
+	 * Each object is verified only once, even if it is referenced multiple
+	 * times or by a cycle. The object graph is traversed by an explicit work
+	 * stack, so its depth is not limited by the call stack.
+	 * 
+	 * @param o
+	 *            The root object of the graph to be verified.
+	 * @return A {@code VerificationResult} object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static Result verifyCascading( Object o ) throws InstantiationException, IllegalAccessException
+	{
+		Result result = new Result( );
+
+		Set<Object> visited = Collections.newSetFromMap( new IdentityHashMap<Object, Boolean>( ) );
+		Deque<Node> stack = new ArrayDeque<Node>( );
+		stack.push( new Node( o, null, false ) );
+
+		while( !stack.isEmpty( ) )
+		{
+			Node node = stack.pop( );
+			Object v = node.value;
+
+			if( !visited.add( v ) )
+				continue;
+
+			// Arrays have no fields of their own
+			if( v.getClass( ).isArray( ) )
+			{
+				node.expand( stack );
+				continue;
+			}
+
+			VerificationPlan plan = VerificationPlan.of( v.getClass( ) );
+
+			if( plan.constraints.length > 0 )
+			{
+				result.merge( verify( v, plan, node.path ) );
+			}
+
+			// The elements of a cascaded container follow its own fields
+			if( node.container )
+			{
+				node.expand( stack );
+			}
+
+			// Pushed in reverse order to be verified in declaration order
+			for( int i = plan.cascades.length - 1; i >= 0; i-- )
+			{
+				Property p = plan.cascades[i];
+
+				Object child = p.accessor.get( v );
+				if( child != null )
+				{
+					stack.push( new Node( child, new Path( node.path, p.field.getName( ) ), true ) );
+				}
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Verifies all objects of the specified collection and merges their
+	 * evaluations in the order of the collection. The evaluations are named
+	 * by the position of the object like {@code [3].price}.
+	 * <p>
+	 * Collections larger than {@link #PARALLEL_THRESHOLD} are split and
+	 * verified in parallel by the common {@link ForkJoinPool}.
+	 * 
+	 * @param objects
+	 *            The objects to be verified, {@code null} elements are
+	 *            skipped.
+	 * @return A {@code VerificationResult} object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static Result verifyAll( Collection<?> objects ) throws InstantiationException, IllegalAccessException
+	{
+		return verifyAll( objects, ForkJoinPool.commonPool( ) );
+	}
+
+	/**
+	 * Verifies all objects of the specified collection by the specified pool
+	 * and merges their evaluations in the order of the collection.
+	 * 
+	 * @param objects
+	 *            The objects to be verified, {@code null} elements are
+	 *            skipped.
+	 * @param pool
+	 *            The pool to verify large collections in parallel.
+	 * @return A {@code VerificationResult} object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @see #verifyAll(Collection)
+	 */
+	public static Result verifyAll( Collection<?> objects, ForkJoinPool pool )
+			throws InstantiationException, IllegalAccessException
+	{
+		Object[] array = objects.toArray( );
+
+		// Small collections are not worth the fork
+		if( array.length <= PARALLEL_THRESHOLD )
+			return verifyRange( array, 0, array.length );
+
+		try
+		{
+			return pool.invoke( new VerificationTask( array, 0, array.length ) );
+		}
+		catch( UndeclaredThrowableException e )
+		{
+			// Possibly wrapped once more when rethrown by the pool
+			for( Throwable cause = e; cause != null; cause = cause.getCause( ) )
+			{
+				if( cause instanceof InstantiationException )
+					throw (InstantiationException) cause;
+				if( cause instanceof IllegalAccessException )
+					throw (IllegalAccessException) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Verifies a range of objects sequentially.
+	 */
+	private static Result verifyRange( Object[] objects, int from, int to )
+			throws InstantiationException, IllegalAccessException
+	{
+		Result result = new Result( );
+
+		for( int i = from; i < to; i++ )
+		{
+			Object o = objects[i];
+			if( o == null )
+				continue;
+
+			VerificationPlan plan = VerificationPlan.of( o.getClass( ) );
+			if( plan.constraints.length > 0 )
+			{
+				result.merge( verify( o, plan, new Path( null, i ) ) );
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Verifies the specified element of a sequence of objects, whose
+	 * evaluations are named by the position of the element.
+	 * 
+	 * @param o
+	 *            The element to be verified.
+	 * @param index
+	 *            The position of the element.
+	 * @return A {@code VerificationResult} object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	static Result verifyElement( Object o, long index ) throws InstantiationException, IllegalAccessException
+	{
+		return verify( o, VerificationPlan.of( o.getClass( ) ), new Path( null, index ) );
+	}
+
+	/**
+	 * Verifies all constraints of the specified object.
+	 * 
+	 * @param o
+	 *            The object to be verified.
+	 * @param plan
+	 *            The plan of the class of the object.
+	 * @param path
+	 *            The path of the object within a cascading verification or
+	 *            {@code null}.
+	 * @return A {@code VerificationResult} object.
+	 */
+	private static Result verify( Object o, VerificationPlan plan, Path path )
+			throws InstantiationException, IllegalAccessException
+	{
+		Result result = new Result( o, plan, path, 0, plan.constraints.length );
+
+		if( plan.compiled != null )
+		{
+			// Valid objects get by without any failure words
+			if( plan.compiled.isValid( o ) )
+				return result;
+
+			long[] failures = new long[plan.words( )];
+			plan.compiled.verify( o, failures );
+			result.failures = failures;
+			return result;
+		}
+
+		// Iterating all constrained class fields
+		for( Property p : plan.properties )
+		{
+			verifyProperty( o, p, result );
+		}
+
+		return result;
+	}
+
+	/**
+	 * Checks whether the specified object passes all of its constraints. In
+	 * contrast to {@link #verify(Object)} the verification stops at the first
+	 * failed constraint, checking cheap constraints like {@code @NotNull}
+	 * first, and no {@link Result} is created.
+	 * 
+	 * @param o
+	 *            The object to get checked for its annotated class fields.
+	 * @return {@code true} if and only if all of the content verifications
+	 *         has evaluated to {@code true}, otherwise {@code false}.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static boolean isValid( Object o ) throws InstantiationException, IllegalAccessException
+	{
+		return isValid( o, VerificationPlan.of( o.getClass( ) ) );
+	}
+
+	/**
+	 * Checks whether the specified object passes all annotations of the
+	 * specified validation groups.
+	 * 
+	 * @param o
+	 *            The object to get checked for its annotated class fields.
+	 * @param groups
+	 *            The groups to be verified, see {@link Default}.
+	 * @return {@code true} if all annotations of the groups are passed.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static boolean isValid( Object o, Class<?>... groups ) throws InstantiationException, IllegalAccessException
+	{
+		return isValid( o, VerificationPlan.of( o.getClass( ), groups ) );
+	}
+
+	private static boolean isValid( Object o, VerificationPlan plan )
+			throws InstantiationException, IllegalAccessException
+	{
+		if( plan.compiled != null )
+			return plan.compiled.isValid( o );
+
+		for( Constraint c : plan.failFast )
+		{
+			if( !c.evaluate( o ) )
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Wraps an implementation of an interface in a proxy, which verifies the
+	 * arguments of each call against the verification annotations of the
+	 * parameters of the interface method, and the returned value against the
+	 * annotations of the method itself. Violations are thrown as
+	 * {@link VerificationException} named by the method and the parameter or
+	 * {@code return}.
+	 * 
+	 * @param type
+	 *            The interface to be implemented by the proxy.
+	 * @param target
+	 *            The implementation all calls are forwarded to.
+	 * @return The verifying proxy.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws IllegalArgumentException
+	 *             If the type is not an interface.
+	 */
+	public static <T> T proxy( Class<T> type, T target ) throws InstantiationException, IllegalAccessException
+	{
+		if( !type.isInterface( ) )
+			throw new IllegalArgumentException( type.getName( ) + " is not an interface" );
+
+		Object proxy = Proxy.newProxyInstance( type.getClassLoader( ), new Class<?>[] { type },
+				new VerifyingInvocationHandler( target, MethodPlan.of( type ) ) );
+		return type.cast( proxy );
+	}
+
+	/**
+	 * @deprecated The parameter values of a method are only available while it
+	 *             is called, use {@link #proxy(Class, Object)} instead.
+	 */
+	@Deprecated
+	public static Result verifyMethodParameters( Object o ) throws InstantiationException, IllegalAccessException
+	{
+		Class<?> type = o.getClass( );
+
+		Result result = new Result( );
+
+		// FIXME No chance to get the parameters value!!!
+//		// Iterating all class methods
+//		for( Method m : type.getDeclaredMethods( ) )
+//		{
+//			Parameter[] parameters = m.getParameters( );
+//			
+//			if(parameters.length == 0)
+//				continue;
+//			
+//			parameters[0].get
+//			Annotation[][] annotations = m.getParameterAnnotations();
+////			Result oneResult = verifyField( o, f );
+////			result.merge( oneResult );
+//		}
+
+		return result;
+	}
+
+	/**
+	 * Evaluates the specified field of the related object.
+	 * 
+	 * @param o
+	 *            The object holding the specified field.
+	 * @param f
+	 *            The field to be checked.
+	 * @return An {@code Evaluation} instance containing information about the
+	 *         verification.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public static Result verifyField( Object o, Field f ) throws InstantiationException, IllegalAccessException
+	{
+		VerificationPlan plan = VerificationPlan.of( f.getDeclaringClass( ).isInstance( o ) ? o.getClass( )
+				: f.getDeclaringClass( ) );
+
+		Property p = plan.property( f );
+		if( p == null )
+			return new Result( );
+
+		Result result = new Result( o, plan, null, p.constraints[0].index,
+				p.constraints[p.constraints.length - 1].index + 1 );
+		verifyProperty( o, p, result );
+
+		return result;
+	}
+
+	/**
+	 * Evaluates all constraints of one planned field and marks the failed
+	 * ones within the specified result.
+	 * 
+	 * @param o
+	 *            The object holding the field.
+	 * @param p
+	 *            The planned field to be checked.
+	 * @param result
+	 *            The result to mark the failed constraints in.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	private static void verifyProperty( Object o, Property p, Result result )
+			throws InstantiationException, IllegalAccessException
+	{
+		if( p.primitive )
+		{
+			verifyPrimitive( o, p, result );
+			return;
+		}
+
+		// Read the field only once for all of its constraints
+		Object v = p.accessor.get( o );
+
+		if( p.sizes.length > 0 )
+		{
+			verifySizes( v, p, result );
+		}
+
+		// Boxed numbers are compared against the fused range once
+		if( p.range != null && ( v == null || !p.range.contains( (Number) v ) ) )
+		{
+			for( Constraint c : p.range.constraints )
+			{
+				if( !c.verify( v ) )
+					result.fail( c.index );
+			}
+		}
+
+		for( Constraint c : p.checks )
+		{
+			if( !c.verify( v ) )
+				result.fail( c.index );
+		}
+	}
+
+	/**
+	 * Measures the value of a field once for all of its size constraints.
+	 */
+	private static void verifySizes( Object v, Property p, Result result )
+			throws InstantiationException, IllegalAccessException
+	{
+		if( v == null )
+		{
+			for( Constraint c : p.sizes )
+			{
+				if( !c.verify( v ) )
+					result.fail( c.index );
+			}
+			return;
+		}
+
+		long size = p.sizes[0].size.measure( v, p.sizeLimit );
+		for( Constraint c : p.sizes )
+		{
+			if( !c.verifySize( size ) )
+				result.fail( c.index );
+		}
+	}
+
+	/**
+	 * Evaluates a primitive field within its own domain without boxing its
+	 * value. Fused range constraints are only evaluated one by one if the
+	 * value lies outside of their range.
+	 */
+	private static void verifyPrimitive( Object o, Property p, Result result )
+			throws InstantiationException, IllegalAccessException
+	{
+		switch( p.accessor.kind )
+		{
+			case INT:
+			{
+				int v = p.accessor.getInt( o );
+				if( p.range != null && !p.range.contains( v ) )
+				{
+					for( Constraint c : p.range.constraints )
+					{
+						if( !c.verify( v ) )
+							result.fail( c.index );
+					}
+				}
+				for( Constraint c : p.checks )
+				{
+					if( !c.verify( v ) )
+						result.fail( c.index );
+				}
+				break;
+			}
+			case LONG:
+			{
+				long v = p.accessor.getLong( o );
+				if( p.range != null && !p.range.contains( v ) )
+				{
+					for( Constraint c : p.range.constraints )
+					{
+						if( !c.verify( v ) )
+							result.fail( c.index );
+					}
+				}
+				for( Constraint c : p.checks )
+				{
+					if( !c.verify( v ) )
+						result.fail( c.index );
+				}
+				break;
+			}
+			case DOUBLE:
+			{
+				double v = p.accessor.getDouble( o );
+				if( p.range != null && !p.range.contains( v ) )
+				{
+					for( Constraint c : p.range.constraints )
+					{
+						if( !c.verify( v ) )
+							result.fail( c.index );
+					}
+				}
+				for( Constraint c : p.checks )
+				{
+					if( !c.verify( v ) )
+						result.fail( c.index );
+				}
+				break;
+			}
+			default:
+				throw new IllegalStateException( "Not a primitive field: " + p.field );
+		}
+	}
+
+	/**
+	 * Evaluates the specified field of the related object.
+	 * 
+	 * @param o
+	 *            The object holding the specified field.
+	 * @param field
+	 *            The field to be checked.
+	 * @return An {@code Evaluation} instance containing information about the
+	 *         verification.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 * @throws NoSuchFieldException
+	 * @throws SecurityException
+	 */
+	public static Result verifyField( Object o, String field )
+			throws InstantiationException, IllegalAccessException, NoSuchFieldException, SecurityException
+	{
+		return verifyField( o, VerificationPlan.field( o.getClass( ), field ) );
+	}
+
+	/**
+	 * Assigns a value to a field of the specified object after verifying the
+	 * value against the verification annotations of the field. The field is
+	 * written directly, so a setter named by
+	 * {@link de.drost.annotation.support.Setter} may delegate to this method.
+	 * <p>
+	 * Fields read through a {@link de.drost.annotation.support.Getter} are
+	 * rejected. Their verification checks the value returned by the getter,
+	 * which is only known after the field has been written, so checking the
+	 * assigned value instead could reach another verdict than
+	 * {@link #verify(Object)}.
+	 * 
+	 * @param o
+	 *            The object holding the specified field.
+	 * @param field
+	 *            The name of the field declared by the class of the object or
+	 *            one of its super classes.
+	 * @param value
+	 *            The value to be assigned, boxed for primitive fields.
+	 * @throws VerificationException
+	 *             If the value violates any annotation of the field, which
+	 *             keeps its previous value then.
+	 * @throws IllegalArgumentException
+	 *             If the constrained field is read through a getter.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 *             If the field is final.
+	 * @throws NoSuchFieldException
+	 */
+	public static void set( Object o, String field, Object value )
+			throws InstantiationException, IllegalAccessException, NoSuchFieldException
+	{
+		Field f = VerificationPlan.field( o.getClass( ), field );
+		Property p = VerificationPlan.of( o.getClass( ) ).property( f );
+
+		if( p == null )
+		{
+			FieldAccessor.of( f ).set( o, value );
+			return;
+		}
+
+		if( f.isAnnotationPresent( Getter.class ) )
+			throw new IllegalArgumentException( "The field " + field + " is verified through its getter "
+					+ f.getAnnotation( Getter.class ).name( ) + "( ) and cannot be assigned guarded" );
+
+		List<Class<? extends Annotation>> violated = null;
+		for( Constraint c : p.constraints )
+		{
+			if( !c.verify( value ) )
+			{
+				if( violated == null )
+					violated = new ArrayList<Class<? extends Annotation>>( );
+				violated.add( c.annotation.annotationType( ) );
+			}
+		}
+
+		if( violated != null )
+			throw new VerificationException( field, value, violated );
+
+		p.accessor.set( o, value );
+	}
+
+	
+	
+	
+	
+	
+	
+	
+	
+	
+	/**
+	 * Splits the verification of a range of objects until the ranges are
+	 * small enough to be verified sequentially. The results of both halves
+	 * are merged by the task that forked them, so no lock is needed and the
+	 * order of the objects is kept.
+	 */
+	private static final class VerificationTask extends RecursiveTask<Result>
+	{
+		private static final long	serialVersionUID	= 1L;
+
+		private final Object[]		objects;
+		private final int			from;
+		private final int			to;
+
+		VerificationTask( Object[] objects, int from, int to )
+		{
+			this.objects = objects;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected Result compute( )
+		{
+			if( to - from <= PARALLEL_THRESHOLD )
+			{
+				try
+				{
+					return verifyRange( objects, from, to );
+				}
+				catch( InstantiationException | IllegalAccessException e )
+				{
+					throw new UndeclaredThrowableException( e );
+				}
+			}
+
+			int middle = ( from + to ) >>> 1;
+
+			VerificationTask left = new VerificationTask( objects, from, middle );
+			left.fork( );
+			Result right = new VerificationTask( objects, middle, to ).compute( );
+
+			Result result = left.join( );
+			result.merge( right );
+			return result;
+		}
+	}
+
+	/**
+	 * The property path of a nested object, which is only rendered when the
+	 * evaluations are created.
+	 */
+	private static final class Path
+	{
+		final Path		parent;
+
+		// Either a field name or null for an element index like [3]
+		final String	segment;
+		final long		index;
+
+		Path( Path parent, String segment )
+		{
+			this.parent = parent;
+			this.segment = segment;
+			this.index = -1;
+		}
+
+		Path( Path parent, long index )
+		{
+			this.parent = parent;
+			this.segment = null;
+			this.index = index;
+		}
+
+		private String segment( )
+		{
+			return ( segment != null ) ? segment : "[" + index + "]";
+		}
+
+		@Override
+		public String toString( )
+		{
+			List<String> segments = new ArrayList<String>( );
+			for( Path p = this; p != null; p = p.parent )
+			{
+				segments.add( p.segment( ) );
+			}
+
+			StringBuilder path = new StringBuilder( );
+			for( int i = segments.size( ) - 1; i >= 0; i-- )
+			{
+				String segment = segments.get( i );
+				if( path.length( ) > 0 && segment.charAt( 0 ) != '[' )
+				{
+					path.append( '.' );
+				}
+				path.append( segment );
+			}
+			return path.toString( );
+		}
+	}
+
+	/**
+	 * An object of the graph traversed by a cascading verification, together
+	 * with its property path.
+	 */
+	private static final class Node
+	{
+		final Object	value;
+		final Path		path;
+
+		/**
+		 * Whether the value has been reached through a {@link Cascade} field
+		 * or a container, so that its elements are verified as well if it is
+		 * an {@code Iterable} or a {@code Map}.
+		 */
+		final boolean	container;
+
+		Node( Object value, Path path, boolean container )
+		{
+			this.value = value;
+			this.path = path;
+			this.container = container;
+		}
+
+		/**
+		 * Pushes the elements of an array, {@code Iterable} or {@code Map} to
+		 * the specified stack, the first element on top. Other values are
+		 * left alone.
+		 */
+		void expand( Deque<Node> stack )
+		{
+			if( value instanceof Object[] )
+			{
+				Object[] array = (Object[]) value;
+				for( int i = array.length - 1; i >= 0; i-- )
+				{
+					if( array[i] != null )
+						stack.push( new Node( array[i], new Path( path, i ), true ) );
+				}
+				return;
+			}
+
+			// Arrays of primitives and plain objects are not descended into
+			if( !( value instanceof Iterable ) && !( value instanceof Map ) )
+				return;
+
+			List<Node> elements = new ArrayList<Node>( );
+			if( value instanceof Iterable )
+			{
+				int i = 0;
+				for( Object element : (Iterable<?>) value )
+				{
+					add( elements, element, new Path( path, i++ ) );
+				}
+			}
+			else
+			{
+				for( Map.Entry<?, ?> entry : ( (Map<?, ?>) value ).entrySet( ) )
+				{
+					add( elements, entry.getValue( ), new Path( path, "[" + entry.getKey( ) + "]" ) );
+				}
+			}
+
+			for( int i = elements.size( ) - 1; i >= 0; i-- )
+			{
+				stack.push( elements.get( i ) );
+			}
+		}
+
+		private static void add( List<Node> elements, Object element, Path path )
+		{
+			if( element != null )
+			{
+				elements.add( new Node( element, path, true ) );
+			}
+		}
+	}
+
+	/**
+	 * Stores multiple {@link Evaluation} instances within one object.
+	 * <p>
+	 * The result only keeps one bit per failed constraint together with the
+	 * verified object and the plan of its class. The {@code Evaluation}
+	 * instances, and the value strings of primitive fields, are created on
+	 * the first call of {@link #getEvaluations()} or {@link #toString()}, so
+	 * the values are read at that time. {@link #getViolations()} only visits
+	 * the failed constraints and is meant to report large results, for
+	 * example through the {@link ViolationFormatter}.
+	 * 
+	 * @author kimschorat
+	 *
+	 */
+	public static final class Result
+	{
+		// For the output of toString()
+		private static final String CTRL = "\r\n";
+
+		private final Object			object;
+		private final VerificationPlan	plan;
+
+		// The path of the object within a cascading verification or null
+		private final Path				path;
+
+		// The range of the evaluated constraints within the plan
+		private final int				from;
+		private final int				to;
+
+		// One bit per failed constraint, allocated on the first failure
+		long[]							failures;
+
+		private List<Result>			merged;
+		private List<Evaluation>		evaluations;
+
+		/**
+		 * Creates a new empty verification result.
+		 */
+		Result( )
+		{
+			this( null, null, null, 0, 0 );
+		}
+
+		/**
+		 * Creates a new verification result of all constraints of an object.
+		 * 
+		 * @param object
+		 *            The verified object.
+		 * @param plan
+		 *            The plan of the class of the object.
+		 */
+		Result( Object object, VerificationPlan plan )
+		{
+			this( object, plan, null, 0, plan.constraints.length );
+		}
+
+		/**
+		 * Creates a new verification result of a range of constraints.
+		 * 
+		 * @param object
+		 *            The verified object.
+		 * @param plan
+		 *            The plan of the class of the object.
+		 * @param path
+		 *            The path of the object or {@code null}.
+		 * @param from
+		 *            The index of the first evaluated constraint.
+		 * @param to
+		 *            The index after the last evaluated constraint.
+		 */
+		private Result( Object object, VerificationPlan plan, Path path, int from, int to )
+		{
+			this.object = object;
+			this.plan = plan;
+			this.path = path;
+			this.from = from;
+			this.to = to;
+		}
+
+		/**
+		 * Checks whether all the annotated elements has passed its associated
+		 * verification.
+		 * 
+		 * @return {@code true} if and only if all of the content verifications
+		 *         has evaluated to {@code true}, otherwise {@code false}.
+		 */
+		public boolean passedAll( )
+		{
+			if( failures != null )
+			{
+				// Only the evaluated constraints are ever marked
+				for( long word : failures )
+				{
+					if( word != 0 )
+						return false;
+				}
+			}
+
+			if( merged != null )
+			{
+				for( Result r : merged )
+				{
+					if( !r.passedAll( ) )
+						return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Returns a list of all the evaluations of the verifications.
+		 * 
+		 * @return
+		 */
+		public List<Evaluation> getEvaluations( )
+		{
+			if( evaluations == null )
+			{
+				evaluations = evaluate( );
+			}
+			return evaluations;
+		}
+
+		/**
+		 * Returns the violated constraints of this and all merged results,
+		 * without evaluating the passed ones. The values of the violating
+		 * fields are read by this call.
+		 * 
+		 * @return A new list of the violations, in the order of the
+		 *         evaluations.
+		 */
+		public List<Violation> getViolations( )
+		{
+			List<Violation> violations = new ArrayList<Violation>( );
+			collectViolations( violations );
+			return violations;
+		}
+
+		private void collectViolations( List<Violation> violations )
+		{
+			if( plan != null && failures != null )
+			{
+				String prefix = ( path != null ) ? path + "." : "";
+
+				for( Property p : plan.properties )
+				{
+					Constraint[] constraints = p.constraints;
+					if( constraints[constraints.length - 1].index < from || constraints[0].index >= to )
+						continue;
+
+					// The value is read once for all violated constraints
+					Object value = null;
+					boolean read = false;
+
+					for( Constraint c : constraints )
+					{
+						if( c.index >= from && c.index < to && failed( c.index ) )
+						{
+							if( !read )
+							{
+								value = p.accessor.get( object );
+								read = true;
+							}
+							violations.add( new Violation( prefix + p.field.getName( ), c, value ) );
+						}
+					}
+				}
+			}
+
+			if( merged != null )
+			{
+				for( Result r : merged )
+				{
+					r.collectViolations( violations );
+				}
+			}
+		}
+
+		/**
+		 * Creates the evaluations of the constraints within the range of
+		 * this result and of all merged results.
+		 */
+		private List<Evaluation> evaluate( )
+		{
+			List<Evaluation> evaluations = new ArrayList<Evaluation>( );
+
+			if( plan != null )
+			{
+				String prefix = ( path != null ) ? path + "." : "";
+
+				for( Property p : plan.properties )
+				{
+					Constraint[] constraints = p.constraints;
+					if( constraints[constraints.length - 1].index < from || constraints[0].index >= to )
+						continue;
+
+					Field f = p.field;
+
+					String value = null;
+					if( f.getType( ).isPrimitive( ) )
+					{
+						value = String.valueOf( p.accessor.get( object ) );
+					}
+
+					for( Constraint c : constraints )
+					{
+						if( c.index >= from && c.index < to )
+						{
+							evaluations.add( new Evaluation( prefix + f.getName( ), value, c, !failed( c.index ) ) );
+						}
+					}
+				}
+			}
+
+			if( merged != null )
+			{
+				for( Result r : merged )
+				{
+					evaluations.addAll( r.getEvaluations( ) );
+				}
+			}
+			return evaluations;
+		}
+
+		/**
+		 * Marks the specified constraint as failed.
+		 * 
+		 * @param index
+		 *            The index of the constraint within the plan.
+		 */
+		void fail( int index )
+		{
+			if( failures == null )
+			{
+				failures = new long[plan.words( )];
+			}
+			failures[index >>> 6] |= 1L << index;
+		}
+
+		private boolean failed( int index )
+		{
+			return failures != null && ( failures[index >>> 6] & ( 1L << index ) ) != 0;
+		}
+
+		/**
+		 * Merges the evaluations of two separate verification results.
+		 * 
+		 * @param other
+		 * @return
+		 */
+		boolean merge( Result other )
+		{
+			if( merged == null )
+			{
+				merged = new ArrayList<Result>( );
+			}
+			evaluations = null;
+			return merged.add( other );
+		}
+
+		@Override
+		public String toString( )
+		{
+			StringBuilder print = new StringBuilder( );
+
+			try
+			{
+				for( Evaluation e : getEvaluations( ) )
+				{
+					e.appendTo( print );
+					print.append( CTRL );
+				}
+			}
+			catch( IOException e )
+			{
+				throw new UncheckedIOException( e );
+			}
+			return print.toString( );
+		}
+	}
+
+	
+	
+	
+	
+	
+	
+	
+	/**
+	 * This class represents the evaluation of an verification. Only elements
+	 * with specified annotations are verified, those related to the content of
+	 * the associated element.
+	 * 
+	 * @author kimschorat
+	 *
+	 */
+	public static final class Evaluation
+	{
+		final String		member;
+		final String		value;
+		final Annotation	a;
+		final String		bound;
+		final boolean		passed;
+
+		/**
+		 * 
+		 * @param member
+		 * @param constraint
+		 * @param passed
+		 */
+		private Evaluation( String member, String value, Constraint constraint, boolean passed )
+		{
+			this.member = member;
+			this.value = value;
+			this.a = constraint.annotation;
+			this.bound = constraint.bound;
+			this.passed = passed;
+		}
+
+		/**
+		 * A string holding the associated member name.
+		 * @return the associated member name.
+		 */
+		public String getMember( )
+		{
+			return member;
+		}
+
+		/**
+		 * The associated annotations used to validate the related member value.
+		 * @return
+		 */
+		public Annotation getAnnotation( )
+		{
+			return a;
+		}
+
+		/**
+		 * Whether the member has passed the evaluation of the related value.
+		 * @return
+		 */
+		public boolean passed( )
+		{
+			return passed;
+		}
+
+		/**
+		 * Appends the text of this evaluation, like {@link #toString()}.
+		 */
+		void appendTo( Appendable out ) throws IOException
+		{
+			ViolationFormatter.appendEvaluation( member, value, a, bound, passed, out );
+		}
+
+		@Override
+		public String toString( )
+		{
+			StringBuilder out = new StringBuilder( );
+			try
+			{
+				appendTo( out );
+			}
+			catch( IOException e )
+			{
+				throw new UncheckedIOException( e );
+			}
+			return out.toString( );
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+/**
+ * Verifies all constraints of one class at once, typically by code that has
+ * been generated for that class. Instances are created by a
+ * {@link ClassVerificatorFactory} when the plan of the class is built and
+ * take the place of the reflective evaluation.
+ * 
+ * @author kimschorat
+ *
+ */
+public interface ClassVerificator
+{
+	/**
+	 * Verifies the constraints of the specified object and marks all failed
+	 * constraints within the given bit set. Bits of passed constraints are
+	 * left untouched.
+	 * 
+	 * @param o
+	 *            The object to be verified.
+	 * @param failures
+	 *            One bit per constraint, addressed by
+	 *            {@link Constraint#getIndex()}.
+	 */
+	public void verify( Object o, long[] failures );
+
+	/**
+	 * Checks whether the specified object passes all constraints. Stops at
+	 * the first failed constraint and does not allocate any memory.
+	 * 
+	 * @param o
+	 *            The object to be verified.
+	 * @return {@code true} if and only if all constraints have passed.
+	 */
+	public boolean isValid( Object o );
+}
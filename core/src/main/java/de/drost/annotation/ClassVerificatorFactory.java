@@ -0,0 +1,56 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.List;
+
+/**
+ * Service interface of the backends creating {@link ClassVerificator}
+ * instances. Implementations are discovered by the
+ * {@link java.util.ServiceLoader} and asked in turn when the plan of a class
+ * is built, after looking for a verificator generated by the annotation
+ * processor at compile time. If none of them supports the class, it is
+ * verified reflectively.
+ * <p>
+ * Setting the system property {@value #ENABLED_PROPERTY} to {@code false}
+ * disables all backends.
+ * 
+ * @author kimschorat
+ *
+ */
+public interface ClassVerificatorFactory
+{
+	/**
+	 * The system property to enable or disable the backends.
+	 */
+	public static final String ENABLED_PROPERTY = "de.drost.annotation.compile";
+
+	/**
+	 * Creates the verificator of the specified class.
+	 * 
+	 * @param type
+	 *            The class to be verified.
+	 * @param constraints
+	 *            All constraints of the class ordered by their index.
+	 * @return The verificator or {@code null} if the class is not supported
+	 *         by this backend.
+	 */
+	public ClassVerificator create( Class<?> type, List<Constraint> constraints );
+}
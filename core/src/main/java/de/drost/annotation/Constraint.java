@@ -0,0 +1,272 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.function.Predicate;
+
+import de.drost.annotation.FieldAccessor.Kind;
+import de.drost.annotation.VerificatorRegistry.Provider;
+import de.drost.annotation.verification.DecimalBound;
+import de.drost.annotation.verification.DecimalMaxVerificator;
+import de.drost.annotation.verification.DecimalMinVerificator;
+
+/**
+ * One verification annotation of a constrained field as compiled into the
+ * plan of its class, together with the {@link Verificator} bound to it by
+ * the {@link ConstraintRegistry}.
+ * <p>
+ * Each constraint has a fixed index within the plan of its class, which is
+ * used to report its evaluation by a {@link ClassVerificator}. As a
+ * {@link Predicate} it evaluates the field of a given object reflectively.
+ * <p>
+ * Constraints of method parameters and return values have no field and only
+ * verify given values.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class Constraint implements Predicate<Object>
+{
+	final Field			field;
+	final FieldAccessor	accessor;
+	final Annotation	annotation;
+	final Provider		verificator;
+	final int			index;
+
+	/**
+	 * Whether the field is verified as primitive value of the kind of its
+	 * accessor.
+	 */
+	final boolean		primitive;
+
+	/**
+	 * Measures the field value if the verificator only depends on its size,
+	 * otherwise {@code null}.
+	 */
+	final Size			size;
+
+	/**
+	 * The size up to which the field value is measured.
+	 */
+	final long			limit;
+
+	/**
+	 * The decimal bound parsed for the declared type of the value if the
+	 * verificator compares against one, otherwise {@code null}.
+	 */
+	final DecimalBound	exact;
+
+	/**
+	 * The attributes of the annotation as rendered into reports, see
+	 * {@link Violation#getBound()}.
+	 */
+	final String		bound;
+
+	Constraint( Field field, FieldAccessor accessor, Annotation annotation, Provider verificator, int index )
+			throws InstantiationException, IllegalAccessException
+	{
+		this( field, accessor, field.getType( ), annotation, verificator, index );
+	}
+
+	/**
+	 * Creates the constraint of a method parameter or return value.
+	 * 
+	 * @param type
+	 *            The declared type of the values to be verified.
+	 */
+	Constraint( Class<?> type, Annotation annotation, Provider verificator, int index )
+			throws InstantiationException, IllegalAccessException
+	{
+		this( null, null, type, annotation, verificator, index );
+	}
+
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	private Constraint( Field field, FieldAccessor accessor, Class<?> type, Annotation annotation,
+			Provider verificator, int index ) throws InstantiationException, IllegalAccessException
+	{
+		this.field = field;
+		this.accessor = accessor;
+		this.annotation = annotation;
+		this.verificator = verificator;
+		this.index = index;
+		this.primitive = accessor != null && accessor.kind != Kind.REFERENCE && supports( accessor.kind );
+		this.size = SizeVerificator.class.isAssignableFrom( verificator.type ) ? Size.of( type ) : null;
+		this.limit = ( size != null ) ? ( (SizeVerificator) verificator.get( ) ).limit( annotation ) : 0;
+		this.bound = ViolationFormatter.bound( annotation );
+		this.exact = ( verificator.type == DecimalMinVerificator.class
+				|| verificator.type == DecimalMaxVerificator.class ) ? DecimalBound.of( annotation, type ) : null;
+	}
+
+	/**
+	 * The constrained field.
+	 * 
+	 * @return the associated field or {@code null} for a method parameter or
+	 *         return value.
+	 */
+	public Field getField( )
+	{
+		return field;
+	}
+
+	/**
+	 * The annotation to verify the field value with.
+	 * 
+	 * @return the associated annotation.
+	 */
+	public Annotation getAnnotation( )
+	{
+		return annotation;
+	}
+
+	/**
+	 * The verificator bound to the annotation by the
+	 * {@link ConstraintRegistry}, which may differ from the one declared by
+	 * {@link AnnotationVerification} if another one has been registered.
+	 * 
+	 * @return the class of the verificator evaluating this constraint.
+	 */
+	public Class<?> getVerificator( )
+	{
+		return verificator.type;
+	}
+
+	/**
+	 * The position of this constraint within the plan of its class.
+	 * 
+	 * @return the index of the constraint.
+	 */
+	public int getIndex( )
+	{
+		return index;
+	}
+
+	/**
+	 * Evaluates this constraint for the field of the specified object.
+	 * 
+	 * @param o
+	 *            The object holding the constrained field.
+	 * @return {@code true} if the field value has passed the verification.
+	 */
+	@Override
+	public boolean test( Object o )
+	{
+		try
+		{
+			return evaluate( o );
+		}
+		catch( InstantiationException | IllegalAccessException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+
+	/**
+	 * Reads the field of the specified object and verifies its value.
+	 */
+	boolean evaluate( Object o ) throws InstantiationException, IllegalAccessException
+	{
+		if( primitive )
+		{
+			switch( accessor.kind )
+			{
+				case INT:
+					return verify( accessor.getInt( o ) );
+				case LONG:
+					return verify( accessor.getLong( o ) );
+				default:
+					return verify( accessor.getDouble( o ) );
+			}
+		}
+		return verify( accessor.get( o ) );
+	}
+
+	/**
+	 * Checks whether the bound verificator is able to verify primitive values
+	 * of the specified kind.
+	 */
+	boolean supports( Kind kind )
+	{
+		switch( kind )
+		{
+			case INT:
+				return IntVerificator.class.isAssignableFrom( verificator.type );
+			case LONG:
+				return LongVerificator.class.isAssignableFrom( verificator.type );
+			case DOUBLE:
+				return DoubleVerificator.class.isAssignableFrom( verificator.type );
+			default:
+				return true;
+		}
+	}
+
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	boolean verify( Object value ) throws InstantiationException, IllegalAccessException
+	{
+		if( exact != null )
+			return exact.test( value );
+		if( size != null && value != null )
+			return ( (SizeVerificator) verificator.get( ) ).verify( size.measure( value, limit ), annotation );
+
+		return ( (Verificator) verificator.get( ) ).verify( value, annotation );
+	}
+
+	/**
+	 * Verifies a size measured by {@link #size} up to at least the limit of
+	 * this constraint.
+	 */
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	boolean verifySize( long size ) throws InstantiationException, IllegalAccessException
+	{
+		return ( (SizeVerificator) verificator.get( ) ).verify( size, annotation );
+	}
+
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	boolean verify( int value ) throws InstantiationException, IllegalAccessException
+	{
+		if( exact != null )
+			return exact.test( value );
+		return ( (IntVerificator) verificator.get( ) ).verify( value, annotation );
+	}
+
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	boolean verify( long value ) throws InstantiationException, IllegalAccessException
+	{
+		if( exact != null )
+			return exact.test( value );
+		return ( (LongVerificator) verificator.get( ) ).verify( value, annotation );
+	}
+
+	@SuppressWarnings( { "rawtypes", "unchecked" } )
+	boolean verify( double value ) throws InstantiationException, IllegalAccessException
+	{
+		if( exact != null )
+			return exact.test( value );
+		return ( (DoubleVerificator) verificator.get( ) ).verify( value, annotation );
+	}
+
+	@Override
+	public String toString( )
+	{
+		String name = ( field != null ) ? field.getName( ) + " " : "";
+		return name + "@" + annotation.annotationType( ).getSimpleName( );
+	}
+}
@@ -0,0 +1,44 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.util.Map;
+
+/**
+ * Service interface binding verification annotations to their
+ * {@link Verificator}, for annotations that cannot be meta-annotated with
+ * {@link AnnotationVerification} themselves. Implementations are discovered
+ * by the {@link java.util.ServiceLoader} when the {@link ConstraintRegistry}
+ * is first used.
+ * 
+ * @author kimschorat
+ *
+ */
+public interface ConstraintProvider
+{
+	/**
+	 * Lists the annotations provided by this service.
+	 * 
+	 * @return The verificator type of each annotation type.
+	 */
+	@SuppressWarnings( "rawtypes" )
+	public Map<Class<? extends Annotation>, Class<? extends Verificator>> constraints( );
+}
@@ -0,0 +1,200 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Recognizes the verification annotations and binds each of them to its
+ * {@link Verificator}. Any annotation type meta-annotated with
+ * {@link AnnotationVerification} is recognized, further annotation types are
+ * registered by {@link ConstraintProvider} services or by
+ * {@link #register(Class, Class)}. Registered bindings take precedence over
+ * the meta-annotation.
+ * <p>
+ * Annotations meta-annotated with verification annotations instead, like
+ * {@code @NotNull @MinSize(1) @MaxSize(64) @interface Name}, are composed
+ * constraints. They are replaced by the verification annotations they
+ * compose, including those of nested compositions.
+ * <p>
+ * The binding of each annotation type is resolved once and cached in a
+ * {@link ClassValue}, so that building a class plan costs one lookup per
+ * annotation. Annotations have to be registered before the first class using
+ * them is verified, as plans are never rebuilt.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class ConstraintRegistry
+{
+	@SuppressWarnings( "rawtypes" )
+	private static final ConcurrentMap<Class<?>, Class<? extends Verificator>>	REGISTERED	= load( );
+
+	private static final ClassValue<Class<?>>									BINDINGS	= new ClassValue<Class<?>>( )
+	{
+		@Override
+		protected Class<?> computeValue( Class<?> type )
+		{
+			Class<?> verificator = REGISTERED.get( type );
+			if( verificator != null )
+				return verificator;
+
+			AnnotationVerification verification = type.getAnnotation( AnnotationVerification.class );
+			return ( verification != null ) ? verification.verifiedBy( ) : null;
+		}
+	};
+
+	private static final Annotation[]											NONE		= new Annotation[0];
+
+	private static final ClassValue<Annotation[]>								COMPOSED	= new ClassValue<Annotation[]>( )
+	{
+		@Override
+		protected Annotation[] computeValue( Class<?> type )
+		{
+			List<Annotation> constraints = new ArrayList<Annotation>( );
+			compose( type, constraints, new HashSet<Class<?>>( ) );
+			return constraints.isEmpty( ) ? NONE : constraints.toArray( new Annotation[constraints.size( )] );
+		}
+	};
+
+	private ConstraintRegistry( )
+	{
+
+	}
+
+	/**
+	 * Binds an annotation type to a verificator, replacing the binding of its
+	 * {@link AnnotationVerification} meta-annotation.
+	 * 
+	 * @param annotation
+	 *            The annotation type to be recognized.
+	 * @param verificator
+	 *            The verificator evaluating the annotation.
+	 */
+	@SuppressWarnings( "rawtypes" )
+	public static void register( Class<? extends Annotation> annotation, Class<? extends Verificator> verificator )
+	{
+		REGISTERED.put( annotation, verificator );
+		BINDINGS.remove( annotation );
+		COMPOSED.remove( annotation );
+	}
+
+	/**
+	 * Checks whether the specified annotation type is recognized as
+	 * verification annotation.
+	 * 
+	 * @param annotation
+	 *            The annotation type.
+	 * @return {@code true} if the annotation is bound to a verificator.
+	 */
+	public static boolean isConstraint( Class<? extends Annotation> annotation )
+	{
+		return BINDINGS.get( annotation ) != null;
+	}
+
+	/**
+	 * Returns the verificator type bound to the specified annotation type.
+	 * 
+	 * @param annotation
+	 *            The annotation type.
+	 * @return The verificator type or {@code null} if the annotation is not a
+	 *         verification annotation.
+	 */
+	public static Class<?> verificator( Class<? extends Annotation> annotation )
+	{
+		return BINDINGS.get( annotation );
+	}
+
+	/**
+	 * Returns the provider of the verificator bound to the specified
+	 * annotation type.
+	 * 
+	 * @return The provider or {@code null} if the annotation is not a
+	 *         verification annotation.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	static VerificatorRegistry.Provider provider( Class<? extends Annotation> annotation )
+			throws InstantiationException, IllegalAccessException
+	{
+		Class<?> verificator = BINDINGS.get( annotation );
+		return ( verificator != null ) ? VerificatorRegistry.provider( verificator ) : null;
+	}
+
+	/**
+	 * Returns the verification annotations composed by the specified
+	 * annotation type.
+	 * 
+	 * @param annotation
+	 *            The annotation type, which is not a verification annotation
+	 *            itself.
+	 * @return The composed verification annotations, empty if the annotation
+	 *         does not compose any.
+	 */
+	static Annotation[] composed( Class<? extends Annotation> annotation )
+	{
+		return COMPOSED.get( annotation );
+	}
+
+	private static void compose( Class<?> type, List<Annotation> constraints, Set<Class<?>> visited )
+	{
+		// Meta-annotations like @Documented annotate themselves
+		if( !visited.add( type ) )
+			return;
+
+		for( Annotation a : type.getAnnotations( ) )
+		{
+			Class<? extends Annotation> t = a.annotationType( );
+			if( BINDINGS.get( t ) != null )
+			{
+				constraints.add( a );
+			}
+			else if( !t.getName( ).startsWith( "java.lang.annotation." ) )
+			{
+				compose( t, constraints, visited );
+			}
+		}
+	}
+
+	@SuppressWarnings( "rawtypes" )
+	private static ConcurrentMap<Class<?>, Class<? extends Verificator>> load( )
+	{
+		ConcurrentMap<Class<?>, Class<? extends Verificator>> registered = new ConcurrentHashMap<Class<?>, Class<? extends Verificator>>( );
+
+		for( ConstraintProvider provider : ServiceLoader.load( ConstraintProvider.class,
+				ConstraintRegistry.class.getClassLoader( ) ) )
+		{
+			for( Map.Entry<Class<? extends Annotation>, Class<? extends Verificator>> e : provider.constraints( )
+					.entrySet( ) )
+			{
+				registered.put( e.getKey( ), e.getValue( ) );
+			}
+		}
+		return registered;
+	}
+}
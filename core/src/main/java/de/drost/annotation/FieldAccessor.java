@@ -0,0 +1,306 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import de.drost.annotation.support.Getter;
+
+/**
+ * Reads the value of one field through a {@link MethodHandle} that is
+ * resolved once when the class plan is built.
+ * <p>
+ * In contrast to {@link Field#get(Object)} this neither needs to toggle the
+ * accessible flag of the field, which is shared between all threads, nor does
+ * it run the access checks again on every call.
+ * <p>
+ * Fields annotated with {@link Getter} are read by calling the named getter
+ * method instead, which may compute the value to be verified.
+ * 
+ * @author kimschorat
+ *
+ */
+final class FieldAccessor
+{
+	private static final MethodType	GETTER_TYPE			= MethodType.methodType( Object.class, Object.class );
+	private static final MethodType	INT_GETTER_TYPE		= MethodType.methodType( int.class, Object.class );
+	private static final MethodType	LONG_GETTER_TYPE	= MethodType.methodType( long.class, Object.class );
+	private static final MethodType	DOUBLE_GETTER_TYPE	= MethodType.methodType( double.class, Object.class );
+	private static final MethodType	SETTER_TYPE			= MethodType.methodType( void.class, Object.class,
+			Object.class );
+
+	/**
+	 * The domain a field value is read in.
+	 */
+	static enum Kind
+	{
+		/**
+		 * Any reference type and {@code boolean}, read as boxed object.
+		 */
+		REFERENCE,
+
+		/**
+		 * {@code int}, {@code short}, {@code char} and {@code byte}.
+		 */
+		INT,
+
+		/**
+		 * {@code long}.
+		 */
+		LONG,
+
+		/**
+		 * {@code double} and {@code float}.
+		 */
+		DOUBLE
+	}
+
+	final Kind					kind;
+	private final MethodHandle	getter;
+	private final MethodHandle	primitiveGetter;
+
+	/**
+	 * Writes the field, {@code null} if the field is final.
+	 */
+	private final MethodHandle	setter;
+
+	private FieldAccessor( Kind kind, MethodHandle getter, MethodHandle primitiveGetter, MethodHandle setter )
+	{
+		this.kind = kind;
+		this.getter = getter;
+		this.primitiveGetter = primitiveGetter;
+		this.setter = setter;
+	}
+
+	/**
+	 * Resolves the accessor of the specified field.
+	 * 
+	 * @param f
+	 *            The field to be read.
+	 * @return The accessor reading the field of a given object.
+	 * @throws IllegalAccessException
+	 *             If the package of the declaring class is not open to this
+	 *             library.
+	 * @throws IllegalStateException
+	 *             If the field names a getter by {@link Getter} that is not
+	 *             declared by its class.
+	 */
+	static FieldAccessor of( Field f ) throws IllegalAccessException
+	{
+		MethodHandles.Lookup lookup = lookup( f.getDeclaringClass( ) );
+		MethodHandle getter = getter( lookup, f );
+		MethodHandle setter = null;
+
+		if( Modifier.isStatic( f.getModifiers( ) ) )
+		{
+			getter = MethodHandles.dropArguments( getter, 0, Object.class );
+		}
+
+		if( !Modifier.isFinal( f.getModifiers( ) ) )
+		{
+			setter = lookup.unreflectSetter( f );
+			if( Modifier.isStatic( f.getModifiers( ) ) )
+			{
+				setter = MethodHandles.dropArguments( setter, 0, Object.class );
+			}
+			setter = setter.asType( SETTER_TYPE );
+		}
+
+		Class<?> t = f.getType( );
+		if( t == int.class || t == short.class || t == char.class || t == byte.class )
+		{
+			return new FieldAccessor( Kind.INT, getter.asType( GETTER_TYPE ), getter.asType( INT_GETTER_TYPE ),
+					setter );
+		}
+		else if( t == long.class )
+		{
+			return new FieldAccessor( Kind.LONG, getter.asType( GETTER_TYPE ), getter.asType( LONG_GETTER_TYPE ),
+					setter );
+		}
+		else if( t == double.class || t == float.class )
+		{
+			return new FieldAccessor( Kind.DOUBLE, getter.asType( GETTER_TYPE ),
+					getter.asType( DOUBLE_GETTER_TYPE ), setter );
+		}
+
+		return new FieldAccessor( Kind.REFERENCE, getter.asType( GETTER_TYPE ), null, setter );
+	}
+
+	/**
+	 * Resolves the getter of the field, which is the method named by
+	 * {@link Getter} or the field itself.
+	 */
+	private static MethodHandle getter( MethodHandles.Lookup lookup, Field f ) throws IllegalAccessException
+	{
+		Getter getter = f.getAnnotation( Getter.class );
+		if( getter == null )
+			return lookup.unreflectGetter( f );
+
+		Method m;
+		try
+		{
+			m = f.getDeclaringClass( ).getDeclaredMethod( getter.name( ) );
+		}
+		catch( NoSuchMethodException e )
+		{
+			throw new IllegalStateException( "The getter " + getter.name( ) + "( ) of the field '" + f.getName( )
+					+ "' is not declared by " + f.getDeclaringClass( ).getName( ) );
+		}
+
+		if( m.getReturnType( ) != f.getType( )
+				|| Modifier.isStatic( m.getModifiers( ) ) != Modifier.isStatic( f.getModifiers( ) ) )
+			throw new IllegalStateException( "The getter " + getter.name( ) + "( ) does not match the field '"
+					+ f.getName( ) + "' of " + f.getDeclaringClass( ).getName( ) );
+
+		return lookup.unreflect( m );
+	}
+
+	/**
+	 * Returns a lookup with private access to the members of the specified
+	 * class.
+	 */
+	static MethodHandles.Lookup lookup( Class<?> type ) throws IllegalAccessException
+	{
+		// Required if this library is deployed as a named module
+		FieldAccessor.class.getModule( ).addReads( type.getModule( ) );
+
+		return MethodHandles.privateLookupIn( type, MethodHandles.lookup( ) );
+	}
+
+	/**
+	 * Reads the field of the specified object.
+	 * 
+	 * @param o
+	 *            The object holding the field.
+	 * @return The boxed value of the field.
+	 */
+	Object get( Object o )
+	{
+		try
+		{
+			return (Object) getter.invokeExact( o );
+		}
+		catch( RuntimeException | Error e )
+		{
+			throw e;
+		}
+		catch( Throwable e )
+		{
+			throw unexpected( e );
+		}
+	}
+
+	/**
+	 * Reads a field of kind {@link Kind#INT} without boxing its value.
+	 */
+	int getInt( Object o )
+	{
+		try
+		{
+			return (int) primitiveGetter.invokeExact( o );
+		}
+		catch( RuntimeException | Error e )
+		{
+			throw e;
+		}
+		catch( Throwable e )
+		{
+			throw unexpected( e );
+		}
+	}
+
+	/**
+	 * Reads a field of kind {@link Kind#LONG} without boxing its value.
+	 */
+	long getLong( Object o )
+	{
+		try
+		{
+			return (long) primitiveGetter.invokeExact( o );
+		}
+		catch( RuntimeException | Error e )
+		{
+			throw e;
+		}
+		catch( Throwable e )
+		{
+			throw unexpected( e );
+		}
+	}
+
+	/**
+	 * Reads a field of kind {@link Kind#DOUBLE} without boxing its value.
+	 */
+	double getDouble( Object o )
+	{
+		try
+		{
+			return (double) primitiveGetter.invokeExact( o );
+		}
+		catch( RuntimeException | Error e )
+		{
+			throw e;
+		}
+		catch( Throwable e )
+		{
+			throw unexpected( e );
+		}
+	}
+
+	/**
+	 * Writes the field of the specified object, bypassing any {@link Getter}.
+	 * 
+	 * @param o
+	 *            The object holding the field.
+	 * @param value
+	 *            The new value, boxed for primitive fields.
+	 * @throws IllegalAccessException
+	 *             If the field is final.
+	 */
+	void set( Object o, Object value ) throws IllegalAccessException
+	{
+		if( setter == null )
+			throw new IllegalAccessException( "Final fields are not writable" );
+
+		try
+		{
+			setter.invokeExact( o, value );
+		}
+		catch( RuntimeException | Error e )
+		{
+			throw e;
+		}
+		catch( Throwable e )
+		{
+			throw unexpected( e );
+		}
+	}
+
+	private static IllegalStateException unexpected( Throwable e )
+	{
+		// Only getter methods might throw checked exceptions
+		return new IllegalStateException( e );
+	}
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.verification.IntervalVerificator;
+import de.drost.annotation.verification.MaxVerificator;
+import de.drost.annotation.verification.MinVerificator;
+
+/**
+ * The {@code @Min}, {@code @Max} and {@code @Interval} constraints of one
+ * numeric field fused into their tightest range, so that a passing value is
+ * checked by one comparison per bound instead of one verificator call per
+ * annotation. Only values outside of the range, and {@code null} values of
+ * boxed fields, are evaluated by each constraint again to find the violated
+ * ones.
+ * <p>
+ * The range matches the evaluation of the verificators exactly: integral
+ * values are compared against the bounds rounded into the {@code long}
+ * domain, {@code NaN} values pass like in the {@code double} comparisons of
+ * the verificators.
+ * 
+ * @author kimschorat
+ *
+ */
+final class FusedRange
+{
+	private static final double	LONG_RANGE	= 0x1p63;
+
+	/**
+	 * The fused constraints.
+	 */
+	final Constraint[]			constraints;
+
+	final double				min;
+	final double				max;
+
+	private final long			lower;
+	private final long			upper;
+
+	/**
+	 * Whether no integral value lies within the range.
+	 */
+	private final boolean		empty;
+
+	private FusedRange( Constraint[] constraints, double min, double max )
+	{
+		this.constraints = constraints;
+		this.min = min;
+		this.max = max;
+
+		this.empty = min >= LONG_RANGE || max < -LONG_RANGE;
+		this.lower = ( min <= -LONG_RANGE ) ? Long.MIN_VALUE : (long) Math.ceil( min );
+		this.upper = ( max >= LONG_RANGE ) ? Long.MAX_VALUE : (long) Math.floor( max );
+	}
+
+	/**
+	 * Fuses the range constraints among the constraints of a numeric field.
+	 * 
+	 * @return The fused range or {@code null} if the field has no range
+	 *         constraints.
+	 */
+	static FusedRange of( Constraint[] constraints )
+	{
+		List<Constraint> fused = new ArrayList<Constraint>( );
+		double min = Double.NEGATIVE_INFINITY;
+		double max = Double.POSITIVE_INFINITY;
+
+		for( Constraint c : constraints )
+		{
+			Annotation a = c.annotation;
+			Class<?> verificator = c.verificator.type;
+
+			if( verificator == MinVerificator.class && a instanceof Min )
+			{
+				min = Math.max( min, ( (Min) a ).value( ) );
+			}
+			else if( verificator == MaxVerificator.class && a instanceof Max )
+			{
+				max = Math.min( max, ( (Max) a ).value( ) );
+			}
+			else if( verificator == IntervalVerificator.class && a instanceof Interval )
+			{
+				min = Math.max( min, ( (Interval) a ).min( ) );
+				max = Math.min( max, ( (Interval) a ).max( ) );
+			}
+			else
+			{
+				continue;
+			}
+			fused.add( c );
+		}
+
+		// NaN bounds never fail a verificator, but would poison the range
+		if( fused.isEmpty( ) || Double.isNaN( min ) || Double.isNaN( max ) )
+			return null;
+
+		return new FusedRange( fused.toArray( new Constraint[fused.size( )] ), min, max );
+	}
+
+	/**
+	 * Checks whether no number passes all fused constraints.
+	 */
+	boolean isContradictory( )
+	{
+		return min > max;
+	}
+
+	/**
+	 * Checks a boxed value, which is compared within its own domain like by
+	 * the verificators.
+	 */
+	boolean contains( Number value )
+	{
+		if( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte )
+			return contains( value.longValue( ) );
+		return contains( value.doubleValue( ) );
+	}
+
+	boolean contains( long value )
+	{
+		return !empty && value >= lower && value <= upper;
+	}
+
+	boolean contains( double value )
+	{
+		return !( value < min ) && !( value > max );
+	}
+}
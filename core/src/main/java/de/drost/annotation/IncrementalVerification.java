@@ -0,0 +1,304 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.VerificationPlan.Property;
+import de.drost.annotation.verification.NotNullVerificator;
+
+/**
+ * Verifies one long-lived object repeatedly, re-evaluating only the fields
+ * that have changed since the last verification and reusing the outcomes of
+ * all other fields.
+ * <p>
+ * Changes are detected by a snapshot of each field value. Primitive fields
+ * are compared by value, fields holding immutable values or only checked for
+ * {@code null} are compared by reference. Fields holding mutable values like
+ * arrays or collections can change without being assigned, so they are
+ * re-evaluated by every {@link #verify()}. Alternatively, the owner of the
+ * object marks the changed fields by {@link #markChanged(String)}, so that
+ * {@link #verifyChanged()} costs only as much as has changed.
+ * <p>
+ * Instances are not thread-safe.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class IncrementalVerification
+{
+	private final Object				object;
+	private final VerificationPlan		plan;
+
+	/**
+	 * Whether a change of each property is visible in its snapshot.
+	 */
+	private final boolean[]				comparable;
+
+	// The snapshots of the primitive and the reference fields
+	private final long[]				primitives;
+	private final Object[]				references;
+
+	// The outcome of the last evaluation of each constraint
+	private final long[]				failures;
+
+	// The properties marked as changed, in the order of their marks
+	private final boolean[]				marked;
+	private final int[]					pending;
+	private int							pendingCount;
+
+	/**
+	 * The properties by field name and by the name qualified by the declaring
+	 * class. Names shadowed within the class hierarchy map to {@code -1}.
+	 */
+	private final Map<String, Integer>	indexes	= new HashMap<String, Integer>( );
+
+	/**
+	 * The declared types whose values never change, so that a field of such
+	 * a type only changes by the assignment of another instance. Declared
+	 * types like {@code Number} may hold mutable instances and are always
+	 * evaluated again.
+	 */
+	private static final Set<Class<?>>	IMMUTABLE	= new HashSet<Class<?>>( Arrays.<Class<?>> asList( Integer.class,
+			Long.class, Short.class, Byte.class, Double.class, Float.class, Boolean.class, Character.class,
+			String.class, BigInteger.class, BigDecimal.class ) );
+
+	/**
+	 * Verifies the specified object entirely and takes the first snapshot.
+	 * 
+	 * @param o
+	 *            The object to be verified repeatedly.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public IncrementalVerification( Object o ) throws InstantiationException, IllegalAccessException
+	{
+		this.object = o;
+		this.plan = VerificationPlan.of( o.getClass( ) );
+
+		int n = plan.properties.length;
+		this.comparable = new boolean[n];
+		this.primitives = new long[n];
+		this.references = new Object[n];
+		this.failures = new long[plan.words( )];
+		this.marked = new boolean[n];
+		this.pending = new int[n];
+
+		for( int i = 0; i < n; i++ )
+		{
+			Property p = plan.properties[i];
+			comparable[i] = isComparable( p );
+			String name = p.field.getName( );
+			indexes.put( name, indexes.containsKey( name ) ? -1 : i );
+			indexes.put( p.field.getDeclaringClass( ).getName( ) + "." + name, i );
+			evaluate( i );
+		}
+	}
+
+	/**
+	 * Re-evaluates all fields whose value has changed since the last
+	 * verification, all fields that cannot be compared and all marked fields.
+	 * 
+	 * @return The outcome of all constraints of the object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public Result verify( ) throws InstantiationException, IllegalAccessException
+	{
+		for( int i = 0; i < plan.properties.length; i++ )
+		{
+			if( marked[i] || !comparable[i] || changed( i ) )
+			{
+				evaluate( i );
+			}
+		}
+		clearMarks( );
+
+		return result( );
+	}
+
+	/**
+	 * Re-evaluates only the fields marked by {@link #markChanged(String)}
+	 * since the last verification, without looking at any other field.
+	 * 
+	 * @return The outcome of all constraints of the object.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	public Result verifyChanged( ) throws InstantiationException, IllegalAccessException
+	{
+		for( int k = 0; k < pendingCount; k++ )
+		{
+			evaluate( pending[k] );
+		}
+		clearMarks( );
+
+		return result( );
+	}
+
+	/**
+	 * Marks the specified field as changed, so that it is re-evaluated by the
+	 * next verification.
+	 * 
+	 * @param field
+	 *            The name of the changed field. A field shadowing a field of
+	 *            a super class has to be qualified by the binary name of its
+	 *            declaring class, like {@code com.example.Base.id}.
+	 * @throws IllegalArgumentException
+	 *             If the field is not constrained or its name is ambiguous.
+	 */
+	public void markChanged( String field )
+	{
+		Integer i = indexes.get( field );
+		if( i == null )
+			throw new IllegalArgumentException( "No constrained field '" + field + "' in " + plan.type.getName( ) );
+		if( i < 0 )
+			throw new IllegalArgumentException( "The field name '" + field + "' is ambiguous in "
+					+ plan.type.getName( ) + ", it has to be qualified by its declaring class" );
+
+		if( !marked[i] )
+		{
+			marked[i] = true;
+			pending[pendingCount++] = i;
+		}
+	}
+
+	/**
+	 * Returns the object verified by this instance.
+	 */
+	public Object getObject( )
+	{
+		return object;
+	}
+
+	private void clearMarks( )
+	{
+		for( int k = 0; k < pendingCount; k++ )
+		{
+			marked[pending[k]] = false;
+		}
+		pendingCount = 0;
+	}
+
+	/**
+	 * Evaluates all constraints of one property and takes its snapshot.
+	 */
+	private void evaluate( int i ) throws InstantiationException, IllegalAccessException
+	{
+		Property p = plan.properties[i];
+
+		if( comparable[i] )
+		{
+			snapshot( i );
+		}
+
+		for( Constraint c : p.constraints )
+		{
+			long bit = 1L << c.index;
+			if( c.evaluate( object ) )
+			{
+				failures[c.index >>> 6] &= ~bit;
+			}
+			else
+			{
+				failures[c.index >>> 6] |= bit;
+			}
+		}
+	}
+
+	private void snapshot( int i )
+	{
+		FieldAccessor accessor = plan.properties[i].accessor;
+
+		switch( accessor.kind )
+		{
+			case INT:
+				primitives[i] = accessor.getInt( object );
+				break;
+			case LONG:
+				primitives[i] = accessor.getLong( object );
+				break;
+			case DOUBLE:
+				primitives[i] = Double.doubleToRawLongBits( accessor.getDouble( object ) );
+				break;
+			default:
+				references[i] = accessor.get( object );
+		}
+	}
+
+	private boolean changed( int i )
+	{
+		FieldAccessor accessor = plan.properties[i].accessor;
+
+		switch( accessor.kind )
+		{
+			case INT:
+				return primitives[i] != accessor.getInt( object );
+			case LONG:
+				return primitives[i] != accessor.getLong( object );
+			case DOUBLE:
+				return primitives[i] != Double.doubleToRawLongBits( accessor.getDouble( object ) );
+			default:
+				return references[i] != accessor.get( object );
+		}
+	}
+
+	private Result result( )
+	{
+		Result result = new Result( object, plan );
+
+		for( long word : failures )
+		{
+			if( word != 0 )
+			{
+				result.failures = Arrays.copyOf( failures, failures.length );
+				break;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Checks whether every change of the property changes its snapshot, which
+	 * holds for primitive and immutable values and for fields that are only
+	 * checked for {@code null}.
+	 */
+	private static boolean isComparable( Property p )
+	{
+		Class<?> t = p.field.getType( );
+
+		if( t.isPrimitive( ) || t.isEnum( ) || IMMUTABLE.contains( t ) )
+			return true;
+
+		for( Constraint c : p.constraints )
+		{
+			if( c.verificator.type != NotNullVerificator.class )
+				return false;
+		}
+		return true;
+	}
+}
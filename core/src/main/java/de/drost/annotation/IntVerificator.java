@@ -0,0 +1,38 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Verificator of primitive {@code int} values, which includes all {@code byte},
+ * {@code short} and {@code char} fields. Implemented in addition to
+ * {@link Verificator} by annotation verifications that are able to evaluate
+ * int fields without boxing their value.
+ * 
+ * @author kimschorat
+ *
+ * @param <A>
+ *            The associated annotation type.
+ */
+public interface IntVerificator<A extends Annotation>
+{
+	public boolean verify( int value, A annotation );
+}
@@ -0,0 +1,220 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.drost.annotation.VerificatorRegistry.Provider;
+
+/**
+ * The compiled constraints of the parameters and the return value of one
+ * interface method, as verified by a proxy created by
+ * {@link AVerification#proxy(Class, Object)}.
+ * <p>
+ * The plans of all methods of an interface are built once and cached in a
+ * {@link ClassValue}, so that each call only evaluates the constraints of its
+ * arguments.
+ * 
+ * @author kimschorat
+ *
+ */
+final class MethodPlan
+{
+	private static final ClassValue<Map<Method, MethodPlan>> PLANS = new ClassValue<Map<Method, MethodPlan>>( )
+	{
+		@Override
+		protected Map<Method, MethodPlan> computeValue( Class<?> type )
+		{
+			try
+			{
+				return compile( type );
+			}
+			catch( InstantiationException | IllegalAccessException e )
+			{
+				throw new UndeclaredThrowableException( e );
+			}
+		}
+	};
+
+	private static final Constraint[]	NONE	= new Constraint[0];
+
+	final Method						method;
+
+	/**
+	 * The constraints of each parameter, empty for unconstrained parameters.
+	 */
+	final Constraint[][]				parameters;
+
+	/**
+	 * The names of the parameters as reported by a violation.
+	 */
+	final String[]						names;
+	final Constraint[]					returns;
+
+	private MethodPlan( Method method, Constraint[][] parameters, Constraint[] returns )
+	{
+		this.method = method;
+		this.parameters = parameters;
+		this.returns = returns;
+
+		Parameter[] declared = method.getParameters( );
+		this.names = new String[declared.length];
+		for( int i = 0; i < declared.length; i++ )
+		{
+			names[i] = method.getName( ) + "#" + declared[i].getName( );
+		}
+	}
+
+	/**
+	 * Returns the cached plans of all constrained methods of the specified
+	 * interface.
+	 * 
+	 * @param type
+	 *            The interface to get the plans for.
+	 * @return The plans by method, without unconstrained methods.
+	 * @throws InstantiationException
+	 *             If a bound verificator could not be created.
+	 * @throws IllegalAccessException
+	 *             If a bound verificator is not accessible.
+	 */
+	static Map<Method, MethodPlan> of( Class<?> type ) throws InstantiationException, IllegalAccessException
+	{
+		try
+		{
+			return PLANS.get( type );
+		}
+		catch( UndeclaredThrowableException e )
+		{
+			Throwable cause = e.getCause( );
+			if( cause instanceof InstantiationException )
+				throw (InstantiationException) cause;
+			if( cause instanceof IllegalAccessException )
+				throw (IllegalAccessException) cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Verifies the arguments of one call.
+	 * 
+	 * @param args
+	 *            The arguments, {@code null} for methods without parameters.
+	 * @throws VerificationException
+	 *             If an argument violates the annotations of its parameter.
+	 */
+	void verifyParameters( Object[] args ) throws InstantiationException, IllegalAccessException
+	{
+		for( int i = 0; i < parameters.length; i++ )
+		{
+			Constraint[] constraints = parameters[i];
+			for( int k = 0; k < constraints.length; k++ )
+			{
+				if( !constraints[k].verify( args[i] ) )
+					throw violation( names[i], args[i], constraints );
+			}
+		}
+	}
+
+	/**
+	 * Verifies the value returned by one call.
+	 * 
+	 * @throws VerificationException
+	 *             If the value violates the annotations of the method.
+	 */
+	void verifyReturn( Object value ) throws InstantiationException, IllegalAccessException
+	{
+		for( int k = 0; k < returns.length; k++ )
+		{
+			if( !returns[k].verify( value ) )
+				throw violation( method.getName( ) + "#return", value, returns );
+		}
+	}
+
+	/**
+	 * Creates the exception reporting all violated constraints of one value,
+	 * which is only evaluated again once a violation has been detected.
+	 */
+	private static VerificationException violation( String name, Object value, Constraint[] constraints )
+			throws InstantiationException, IllegalAccessException
+	{
+		List<Class<? extends Annotation>> violated = new ArrayList<Class<? extends Annotation>>( );
+		for( Constraint c : constraints )
+		{
+			if( !c.verify( value ) )
+				violated.add( c.annotation.annotationType( ) );
+		}
+		return new VerificationException( name, value, violated );
+	}
+
+	private static Map<Method, MethodPlan> compile( Class<?> type )
+			throws InstantiationException, IllegalAccessException
+	{
+		Map<Method, MethodPlan> plans = new HashMap<Method, MethodPlan>( );
+
+		for( Method m : type.getMethods( ) )
+		{
+			int index = 0;
+
+			Class<?>[] types = m.getParameterTypes( );
+			Annotation[][] annotations = m.getParameterAnnotations( );
+			Constraint[][] parameters = new Constraint[types.length][];
+			for( int i = 0; i < types.length; i++ )
+			{
+				parameters[i] = compile( types[i], annotations[i], index );
+				index += parameters[i].length;
+			}
+
+			Constraint[] returns = ( m.getReturnType( ) != void.class )
+					? compile( m.getReturnType( ), m.getAnnotations( ), index ) : NONE;
+
+			if( index + returns.length > 0 )
+			{
+				plans.put( m, new MethodPlan( m, parameters, returns ) );
+			}
+		}
+		return Collections.unmodifiableMap( plans );
+	}
+
+	private static Constraint[] compile( Class<?> type, Annotation[] candidates, int index )
+			throws InstantiationException, IllegalAccessException
+	{
+		List<Annotation> annotations = new ArrayList<Annotation>( );
+		List<Provider> verificators = new ArrayList<Provider>( );
+		VerificationPlan.collect( candidates, VerificationPlan.DEFAULT_GROUPS, annotations, verificators );
+
+		if( annotations.isEmpty( ) )
+			return NONE;
+
+		Constraint[] constraints = new Constraint[annotations.size( )];
+		for( int i = 0; i < constraints.length; i++ )
+		{
+			constraints[i] = new Constraint( type, annotations.get( i ), verificators.get( i ), index + i );
+		}
+		return constraints;
+	}
+}
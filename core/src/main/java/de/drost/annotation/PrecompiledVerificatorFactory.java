@@ -0,0 +1,132 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.List;
+
+/**
+ * Finds the verificators generated ahead of time by the annotation processor
+ * of this library. The processor emits a class {@code Foo$$Validator} next to
+ * each class {@code Foo} with verification annotations, which lists its
+ * constraints in the public field {@value #LAYOUT_FIELD} as
+ * {@code "field@annotation type"}, qualifying inherited fields by their
+ * class.
+ * <p>
+ * The layout is matched against the plan of the class once. Generated
+ * classes that do not cover exactly the constraints of the plan, for example
+ * because the class has been changed without running the processor again,
+ * are ignored. So are all generated classes of a class whose annotations are
+ * bound to another verificator by the {@link ConstraintRegistry} than the
+ * one declared by their {@link AnnotationVerification}, since the processor
+ * compiles the declared checks into the code.
+ * 
+ * @author kimschorat
+ *
+ */
+final class PrecompiledVerificatorFactory implements ClassVerificatorFactory
+{
+	/**
+	 * The suffix of the generated class names.
+	 */
+	static final String	SUFFIX			= "$$Validator";
+
+	/**
+	 * The static field of the generated classes listing their constraints.
+	 */
+	static final String	LAYOUT_FIELD	= "CONSTRAINTS";
+
+	@Override
+	public ClassVerificator create( Class<?> type, List<Constraint> constraints )
+	{
+		Class<?> generated;
+		try
+		{
+			generated = Class.forName( type.getName( ) + SUFFIX, true, type.getClassLoader( ) );
+		}
+		catch( ClassNotFoundException | LinkageError e )
+		{
+			return null;
+		}
+
+		if( !ClassVerificator.class.isAssignableFrom( generated ) )
+			return null;
+
+		try
+		{
+			for( Constraint c : constraints )
+			{
+				if( !isDeclaredBinding( c ) )
+					return null;
+			}
+
+			String[] layout = (String[]) generated.getField( LAYOUT_FIELD ).get( null );
+			if( layout.length != constraints.size( ) )
+				return null;
+
+			// Orders the constraints as expected by the generated class
+			Constraint[] ordered = new Constraint[layout.length];
+			boolean[] assigned = new boolean[constraints.size( )];
+
+			for( int k = 0; k < layout.length; k++ )
+			{
+				for( Constraint c : constraints )
+				{
+					if( !assigned[c.index] && layout[k].equals( key( type, c ) ) )
+					{
+						ordered[k] = c;
+						assigned[c.index] = true;
+						break;
+					}
+				}
+
+				if( ordered[k] == null )
+					return null;
+			}
+
+			return (ClassVerificator) generated.getConstructor( Constraint[].class ).newInstance( (Object) ordered );
+		}
+		catch( ReflectiveOperationException | RuntimeException e )
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * Checks whether the constraint is evaluated by the verificator declared
+	 * by its annotation type.
+	 */
+	static boolean isDeclaredBinding( Constraint c )
+	{
+		AnnotationVerification declared = c.annotation.annotationType( ).getAnnotation( AnnotationVerification.class );
+		return declared != null && declared.verifiedBy( ) == c.verificator.type;
+	}
+
+	/**
+	 * The key of a constraint within the layout of a generated class. Fields
+	 * inherited from a super class are qualified by the binary name of their
+	 * class.
+	 */
+	static String key( Class<?> type, Constraint c )
+	{
+		Class<?> owner = c.field.getDeclaringClass( );
+		String field = ( owner == type ) ? c.field.getName( ) : owner.getName( ) + "." + c.field.getName( );
+		return field + "@" + c.annotation.annotationType( ).getName( );
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.Collection;
+import java.util.Map;
+
+import de.drost.annotation.verification.Sizes;
+
+/**
+ * Measures the size of a value by the static type of its field, which is
+ * determined once when the plan of a class is built. Collections, maps and
+ * iterables are measured by {@link Sizes}, which only probes them up to a
+ * limit unless their size is known to be constant time.
+ * 
+ * @author kimschorat
+ *
+ */
+enum Size
+{
+	OBJECT_ARRAY, INT_ARRAY, LONG_ARRAY, DOUBLE_ARRAY, FLOAT_ARRAY, SHORT_ARRAY, BYTE_ARRAY, CHAR_ARRAY,
+	BOOLEAN_ARRAY, STRING, CHAR_SEQUENCE, COLLECTION, MAP, ITERABLE;
+
+	/**
+	 * Returns the size measure of the specified field type.
+	 * 
+	 * @param type
+	 *            The static type of a field.
+	 * @return The measure or {@code null} if the values of the type have no
+	 *         known size.
+	 */
+	static Size of( Class<?> type )
+	{
+		if( type.isArray( ) )
+		{
+			Class<?> component = type.getComponentType( );
+
+			if( !component.isPrimitive( ) )
+				return OBJECT_ARRAY;
+			if( component == int.class )
+				return INT_ARRAY;
+			if( component == long.class )
+				return LONG_ARRAY;
+			if( component == double.class )
+				return DOUBLE_ARRAY;
+			if( component == float.class )
+				return FLOAT_ARRAY;
+			if( component == short.class )
+				return SHORT_ARRAY;
+			if( component == byte.class )
+				return BYTE_ARRAY;
+			if( component == char.class )
+				return CHAR_ARRAY;
+			return BOOLEAN_ARRAY;
+		}
+		if( type == String.class )
+			return STRING;
+		if( CharSequence.class.isAssignableFrom( type ) )
+			return CHAR_SEQUENCE;
+		if( Collection.class.isAssignableFrom( type ) )
+			return COLLECTION;
+		if( Map.class.isAssignableFrom( type ) )
+			return MAP;
+		if( Iterable.class.isAssignableFrom( type ) )
+			return ITERABLE;
+		return null;
+	}
+
+	/**
+	 * Measures the specified value.
+	 * 
+	 * @param value
+	 *            A non-null value of the type of this measure.
+	 * @param limit
+	 *            The size up to which the value has to be measured.
+	 * @return The size of the value, which is {@code limit} for larger
+	 *         iterated values.
+	 */
+	long measure( Object value, long limit )
+	{
+		switch( this )
+		{
+			case OBJECT_ARRAY:
+				return ( (Object[]) value ).length;
+			case INT_ARRAY:
+				return ( (int[]) value ).length;
+			case LONG_ARRAY:
+				return ( (long[]) value ).length;
+			case DOUBLE_ARRAY:
+				return ( (double[]) value ).length;
+			case FLOAT_ARRAY:
+				return ( (float[]) value ).length;
+			case SHORT_ARRAY:
+				return ( (short[]) value ).length;
+			case BYTE_ARRAY:
+				return ( (byte[]) value ).length;
+			case CHAR_ARRAY:
+				return ( (char[]) value ).length;
+			case BOOLEAN_ARRAY:
+				return ( (boolean[]) value ).length;
+			case STRING:
+				return ( (String) value ).length( );
+			case CHAR_SEQUENCE:
+				return ( (CharSequence) value ).length( );
+			case COLLECTION:
+				return Sizes.of( (Collection<?>) value, limit );
+			case MAP:
+				return Sizes.of( (Map<?, ?>) value, limit );
+			default:
+				return Sizes.count( ( (Iterable<?>) value ).iterator( ), limit );
+		}
+	}
+}
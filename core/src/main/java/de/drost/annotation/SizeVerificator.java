@@ -0,0 +1,49 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Verificator of the size of arrays, collections, maps and character
+ * sequences. Implemented in addition to {@link Verificator} by annotation
+ * verifications that only depend on the size of the value, which is then
+ * measured by the static type of the field instead of the runtime type of
+ * each value.
+ * 
+ * @author kimschorat
+ *
+ * @param <A>
+ *            The associated annotation type.
+ */
+public interface SizeVerificator<A extends Annotation>
+{
+	public boolean verify( long size, A annotation );
+
+	/**
+	 * The size up to which values have to be measured to verify them, so
+	 * that iterated collections are only probed up to this limit.
+	 * 
+	 * @param annotation
+	 *            The annotation to verify the values with.
+	 * @return The number of elements needed to decide the verification.
+	 */
+	public long limit( A annotation );
+}
@@ -0,0 +1,64 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a {@link Verificator} implementation that keeps state between calls
+ * and therefore must not be shared by the {@link VerificatorRegistry}.
+ * Verificators without this annotation are created once and reused by all
+ * threads, as long as they do not declare any mutable instance fields.
+ * 
+ * @author kimschorat
+ *
+ */
+@Documented
+@Retention( RetentionPolicy.RUNTIME )
+@Target( ElementType.TYPE )
+public @interface Stateful
+{
+	/**
+	 * The scope of the verificator instances.
+	 * 
+	 * @return The scope, by default a new instance is used for every call.
+	 */
+	Scope value( ) default Scope.CALL;
+
+	/**
+	 * Defines how often a new instance of a stateful verificator is created.
+	 */
+	public static enum Scope
+	{
+		/**
+		 * One instance per thread.
+		 */
+		THREAD,
+
+		/**
+		 * A new instance for every single verification.
+		 */
+		CALL
+	}
+}
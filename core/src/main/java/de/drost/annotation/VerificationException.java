@@ -0,0 +1,129 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Thrown by a guarded setter if the value to be assigned to a field violates
+ * the verification annotations of the field. The field keeps its previous
+ * value.
+ * <p>
+ * Verifying proxies throw it for arguments and returned values, named by the
+ * method and the parameter, like {@code withdraw#amount} or
+ * {@code balance#return}.
+ * <p>
+ * The message only contains the rejected value if it is a number, boolean,
+ * character or enum, so that strings like passwords are not logged.
+ * 
+ * @author kimschorat
+ *
+ */
+public class VerificationException extends IllegalArgumentException
+{
+	private static final long							serialVersionUID	= 1L;
+
+	private final String								field;
+	private final transient Object						value;
+	private final List<Class<? extends Annotation>>	violated;
+
+	/**
+	 * Creates a new exception for a rejected value.
+	 * 
+	 * @param field
+	 *            The name of the field.
+	 * @param value
+	 *            The rejected value.
+	 * @param violated
+	 *            The types of the violated verification annotations.
+	 */
+	@SafeVarargs
+	@SuppressWarnings( "varargs" )
+	public VerificationException( String field, Object value, Class<? extends Annotation>... violated )
+	{
+		this( field, value, Arrays.asList( violated ) );
+	}
+
+	/**
+	 * Creates a new exception for a rejected value from the collected types
+	 * of the violated annotations, which are copied.
+	 */
+	VerificationException( String field, Object value, List<Class<? extends Annotation>> violated )
+	{
+		super( message( field, value, violated ) );
+		this.field = field;
+		this.value = value;
+		this.violated = Collections.unmodifiableList( new ArrayList<Class<? extends Annotation>>( violated ) );
+	}
+
+	/**
+	 * The name of the field the value was to be assigned to, or of the
+	 * verified parameter or return value.
+	 * 
+	 * @return the associated field name.
+	 */
+	public String getField( )
+	{
+		return field;
+	}
+
+	/**
+	 * The rejected value.
+	 * 
+	 * @return the value violating the annotations of the field.
+	 */
+	public Object getValue( )
+	{
+		return value;
+	}
+
+	/**
+	 * The types of the annotations violated by the value.
+	 * 
+	 * @return the violated annotation types.
+	 */
+	public List<Class<? extends Annotation>> getViolated( )
+	{
+		return violated;
+	}
+
+	private static String message( String field, Object value, List<Class<? extends Annotation>> violated )
+	{
+		StringBuilder message = new StringBuilder( );
+		message.append( '\'' ).append( field ).append( "' " );
+
+		// Only values safe to print, like for the ViolationFormatter
+		String display = ViolationFormatter.display( value );
+		if( display != null )
+		{
+			message.append( '(' ).append( display ).append( ") " );
+		}
+		message.append( "violates" );
+		for( Class<? extends Annotation> a : violated )
+		{
+			message.append( " @" ).append( a.getSimpleName( ) );
+		}
+		return message.toString( );
+	}
+}
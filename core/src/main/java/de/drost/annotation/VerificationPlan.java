@@ -0,0 +1,673 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.drost.annotation.FieldAccessor.Kind;
+import de.drost.annotation.VerificatorRegistry.Provider;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.verification.IntervalVerificator;
+import de.drost.annotation.verification.MaxSizeVerificator;
+import de.drost.annotation.verification.MaxVerificator;
+import de.drost.annotation.verification.MinSizeVerificator;
+import de.drost.annotation.verification.MinVerificator;
+import de.drost.annotation.verification.NotNullVerificator;
+
+/**
+ * The compiled verification plan of one class. It lists every constrained
+ * field, including the fields inherited from its super classes, together
+ * with its verification annotations and the
+ * {@link Verificator} instances bound to them, so that the reflective lookup
+ * of fields and annotations only happens once per class. If one of the
+ * available {@link ClassVerificatorFactory} backends supports the class, the
+ * plan also holds the {@link ClassVerificator} generated for it.
+ * <p>
+ * Plans are immutable and cached per class in a {@link ClassValue}, which
+ * does not prevent the class or its class loader from being unloaded. This
+ * plan covers the {@link Default} group, the plans of other validation groups
+ * only hold the annotations of these groups and are cached by the default
+ * plan.
+ * 
+ * @author kimschorat
+ *
+ */
+final class VerificationPlan
+{
+	private static final ClassValue<VerificationPlan> PLANS = new ClassValue<VerificationPlan>( )
+	{
+		@Override
+		protected VerificationPlan computeValue( Class<?> type )
+		{
+			try
+			{
+				return new VerificationPlan( type, DEFAULT_GROUPS );
+			}
+			catch( InstantiationException | IllegalAccessException e )
+			{
+				throw new UndeclaredThrowableException( e );
+			}
+		}
+	};
+
+	private static final System.Logger					LOGGER	= System.getLogger( VerificationPlan.class.getName( ) );
+
+	/**
+	 * The groups of annotations that do not declare any groups.
+	 */
+	static final Class<?>[]	DEFAULT_GROUPS	= { Default.class };
+
+	/**
+	 * Returns the cached plan of the specified class, building it on first
+	 * use.
+	 * 
+	 * @param type
+	 *            The class to get the plan for.
+	 * @return The plan of the specified class.
+	 * @throws InstantiationException
+	 *             If a bound verificator could not be created.
+	 * @throws IllegalAccessException
+	 *             If a bound verificator is not accessible.
+	 */
+	static VerificationPlan of( Class<?> type ) throws InstantiationException, IllegalAccessException
+	{
+		try
+		{
+			return PLANS.get( type );
+		}
+		catch( UndeclaredThrowableException e )
+		{
+			Throwable cause = e.getCause( );
+			if( cause instanceof InstantiationException )
+				throw (InstantiationException) cause;
+			if( cause instanceof IllegalAccessException )
+				throw (IllegalAccessException) cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the cached plan of the specified class covering the specified
+	 * validation groups.
+	 * 
+	 * @param type
+	 *            The class to get the plan for.
+	 * @param groups
+	 *            The groups to be verified, the {@link Default} group if none.
+	 * @return The plan of the specified class and groups.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	static VerificationPlan of( Class<?> type, Class<?>... groups )
+			throws InstantiationException, IllegalAccessException
+	{
+		VerificationPlan plan = of( type );
+
+		if( groups.length == 0 || ( groups.length == 1 && groups[0] == Default.class ) )
+			return plan;
+
+		// Single groups are the common case and do not need a set as key
+		Object key = ( groups.length == 1 ) ? groups[0] : new HashSet<Class<?>>( Arrays.asList( groups ) );
+
+		VerificationPlan planned = plan.grouped.get( key );
+		if( planned == null )
+		{
+			planned = new VerificationPlan( type, groups.clone( ) );
+			VerificationPlan existing = plan.grouped.putIfAbsent( key, planned );
+			if( existing != null )
+				planned = existing;
+		}
+		return planned;
+	}
+
+	/**
+	 * Orders the constraints from cheap null checks and primitive comparisons
+	 * to size checks, which might have to count the elements of a collection,
+	 * and unknown verificators.
+	 */
+	private static final Comparator<Constraint>	BY_COST	= new Comparator<Constraint>( )
+	{
+		@Override
+		public int compare( Constraint a, Constraint b )
+		{
+			return Integer.compare( cost( a ), cost( b ) );
+		}
+	};
+
+	/**
+	 * The backends available to compile the plans into class verificators.
+	 */
+	private static final List<ClassVerificatorFactory> FACTORIES = loadFactories( );
+
+	final Class<?>				type;
+	final Property[]			properties;
+	final Constraint[]			constraints;
+
+	/**
+	 * The fields marked by {@link Cascade}, whose values are verified as well
+	 * by a cascading verification.
+	 */
+	final Property[]			cascades;
+
+	/**
+	 * All constraints that can fail ordered by their estimated cost, used to
+	 * stop at the first failure as early as possible.
+	 */
+	final Constraint[]			failFast;
+
+	/**
+	 * The generated verificator of the class or {@code null} if the class is
+	 * verified reflectively.
+	 */
+	final ClassVerificator		compiled;
+	private final Map<Field, Property>	byField;
+
+	/**
+	 * The plans of other validation groups, keyed by a single group or a set
+	 * of groups.
+	 */
+	private final ConcurrentMap<Object, VerificationPlan>	grouped	= new ConcurrentHashMap<Object, VerificationPlan>( );
+
+	private VerificationPlan( Class<?> type, Class<?>[] groups ) throws InstantiationException, IllegalAccessException
+	{
+		this.type = type;
+
+		List<Property> properties = new ArrayList<Property>( );
+		List<Constraint> constraints = new ArrayList<Constraint>( );
+		List<Property> cascades = new ArrayList<Property>( );
+		Map<Field, Property> byField = new HashMap<Field, Property>( );
+
+		// Iterating all class fields, including the inherited ones
+		for( Field f : fields( type ) )
+		{
+			Property p = compile( f, groups, constraints.size( ) );
+			if( p != null )
+			{
+				properties.add( p );
+				constraints.addAll( Arrays.asList( p.constraints ) );
+				byField.put( f, p );
+			}
+
+			if( f.isAnnotationPresent( Cascade.class ) && !f.getType( ).isPrimitive( ) )
+			{
+				FieldAccessor accessor = ( p != null ) ? p.accessor : FieldAccessor.of( f );
+				cascades.add( new Property( f, accessor, false, new Constraint[0] ) );
+			}
+		}
+
+		this.properties = properties.toArray( new Property[properties.size( )] );
+		this.cascades = cascades.toArray( new Property[cascades.size( )] );
+		this.constraints = constraints.toArray( new Constraint[constraints.size( )] );
+		List<Constraint> failFast = new ArrayList<Constraint>( );
+		for( Constraint c : constraints )
+		{
+			if( !isRedundant( c ) )
+				failFast.add( c );
+		}
+		this.failFast = failFast.toArray( new Constraint[failFast.size( )] );
+		Arrays.sort( this.failFast, BY_COST );
+		this.byField = Collections.unmodifiableMap( byField );
+		this.compiled = compile( type, Collections.unmodifiableList( constraints ) );
+	}
+
+	/**
+	 * Lists the fields declared by the specified class and all of its super
+	 * classes, starting with the fields of the topmost super class.
+	 */
+	private static List<Field> fields( Class<?> type )
+	{
+		List<Class<?>> hierarchy = new ArrayList<Class<?>>( );
+		for( Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass( ) )
+		{
+			hierarchy.add( c );
+		}
+
+		List<Field> fields = new ArrayList<Field>( );
+		for( int i = hierarchy.size( ) - 1; i >= 0; i-- )
+		{
+			fields.addAll( Arrays.asList( hierarchy.get( i ).getDeclaredFields( ) ) );
+		}
+		return fields;
+	}
+
+	/**
+	 * Finds the field of the specified name declared by the class or by the
+	 * nearest of its super classes.
+	 * 
+	 * @throws NoSuchFieldException
+	 *             If no class of the hierarchy declares the field.
+	 */
+	static Field field( Class<?> type, String name ) throws NoSuchFieldException
+	{
+		for( Class<?> c = type; c != null; c = c.getSuperclass( ) )
+		{
+			try
+			{
+				return c.getDeclaredField( name );
+			}
+			catch( NoSuchFieldException e )
+			{
+				// Continue with the super class
+			}
+		}
+		throw new NoSuchFieldException( name );
+	}
+
+	/**
+	 * Returns the plan entry of the specified field.
+	 * 
+	 * @param f
+	 *            A field declared by the class of this plan or one of its
+	 *            super classes.
+	 * @return The associated property or {@code null} if the field is not
+	 *         constrained by any verification annotation.
+	 */
+	Property property( Field f )
+	{
+		return byField.get( f );
+	}
+
+	/**
+	 * The number of {@code long} words needed for one bit per constraint.
+	 */
+	int words( )
+	{
+		return ( constraints.length + 63 ) >>> 6;
+	}
+
+	/**
+	 * Collects the verification annotations of one field.
+	 * 
+	 * @param f
+	 *            The field to be compiled.
+	 * @param groups
+	 *            The validation groups to be covered.
+	 * @param index
+	 *            The index of the first constraint of the field.
+	 * @return The compiled property or {@code null} if the field has no
+	 *         verification annotations.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	private static Property compile( Field f, Class<?>[] groups, int index )
+			throws InstantiationException, IllegalAccessException
+	{
+		List<Annotation> annotations = new ArrayList<Annotation>( );
+		List<Provider> verificators = new ArrayList<Provider>( );
+		collect( f.getAnnotations( ), groups, annotations, verificators );
+
+		if( annotations.isEmpty( ) )
+			return null;
+
+		FieldAccessor accessor = FieldAccessor.of( f );
+
+		Constraint[] constraints = new Constraint[annotations.size( )];
+		for( int i = 0; i < constraints.length; i++ )
+		{
+			constraints[i] = new Constraint( f, accessor, annotations.get( i ), verificators.get( i ), index + i );
+		}
+
+		// Primitive fields are only read unboxed if all verificators support it
+		boolean primitive = accessor.kind != Kind.REFERENCE;
+		for( Constraint c : constraints )
+		{
+			primitive &= c.primitive || isRedundant( c );
+		}
+
+		Property p = new Property( f, accessor, primitive, constraints );
+		warnContradictions( p );
+		return p;
+	}
+
+	/**
+	 * Checks whether the constraint passes every value of the primitive field
+	 * it is placed on, like {@code @NotNull} or {@code @Max(Long.MAX_VALUE)}
+	 * on an {@code int}. Such constraints are never evaluated.
+	 */
+	static boolean isRedundant( Constraint c )
+	{
+		Class<?> t = ( c.field != null ) ? c.field.getType( ) : null;
+		if( t == null || !t.isPrimitive( ) )
+			return false;
+
+		Class<?> verificator = c.verificator.type;
+		if( verificator == NotNullVerificator.class )
+			return true;
+		if( t == boolean.class )
+			return false;
+
+		double lowest;
+		double highest;
+		if( t == double.class || t == float.class )
+		{
+			lowest = Double.NEGATIVE_INFINITY;
+			highest = Double.POSITIVE_INFINITY;
+		}
+		else if( t == long.class )
+		{
+			lowest = Long.MIN_VALUE;
+			highest = Long.MAX_VALUE;
+		}
+		else if( t == int.class )
+		{
+			lowest = Integer.MIN_VALUE;
+			highest = Integer.MAX_VALUE;
+		}
+		else if( t == short.class )
+		{
+			lowest = Short.MIN_VALUE;
+			highest = Short.MAX_VALUE;
+		}
+		else if( t == char.class )
+		{
+			lowest = Character.MIN_VALUE;
+			highest = Character.MAX_VALUE;
+		}
+		else
+		{
+			lowest = Byte.MIN_VALUE;
+			highest = Byte.MAX_VALUE;
+		}
+
+		// NaN bounds pass every value as well
+		Annotation a = c.annotation;
+		if( verificator == MinVerificator.class && a instanceof Min )
+			return !( ( (Min) a ).value( ) > lowest );
+		if( verificator == MaxVerificator.class && a instanceof Max )
+			return !( ( (Max) a ).value( ) < highest );
+		if( verificator == IntervalVerificator.class && a instanceof Interval )
+			return !( ( (Interval) a ).min( ) > lowest ) && !( ( (Interval) a ).max( ) < highest );
+		return false;
+	}
+
+	/**
+	 * Reports constraints of one field that can never be passed together,
+	 * like {@code @Min(30) @Max(0)}. The field is still verified and fails
+	 * on every value.
+	 */
+	private static void warnContradictions( Property p )
+	{
+		String contradiction = null;
+
+		if( p.range != null && p.range.isContradictory( ) )
+		{
+			contradiction = "no number is at least " + p.range.min + " and at most " + p.range.max;
+		}
+
+		long minSize = 0;
+		long maxSize = Long.MAX_VALUE;
+		for( Constraint c : p.constraints )
+		{
+			if( c.annotation instanceof MinSize && c.verificator.type == MinSizeVerificator.class )
+				minSize = Math.max( minSize, ( (MinSize) c.annotation ).value( ) );
+			else if( c.annotation instanceof MaxSize && c.verificator.type == MaxSizeVerificator.class )
+				maxSize = Math.min( maxSize, ( (MaxSize) c.annotation ).value( ) );
+		}
+		if( minSize > maxSize )
+		{
+			contradiction = "no size is at least " + minSize + " and at most " + maxSize;
+		}
+
+		if( contradiction != null )
+		{
+			LOGGER.log( System.Logger.Level.WARNING, "Contradictory constraints on {0}.{1}, {2}",
+					p.field.getDeclaringClass( ).getName( ), p.field.getName( ), contradiction );
+		}
+	}
+
+	/**
+	 * Collects the verification annotations of the specified groups among the
+	 * specified ones together with the providers of their verificators.
+	 * Composed constraints are replaced by the annotations they compose.
+	 * 
+	 * @param candidates
+	 *            The annotations of a field, parameter or method.
+	 * @param groups
+	 *            The validation groups to be covered.
+	 * @param annotations
+	 *            The list to add the verification annotations to.
+	 * @param verificators
+	 *            The list to add the associated providers to.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	static void collect( Annotation[] candidates, Class<?>[] groups, List<Annotation> annotations,
+			List<Provider> verificators ) throws InstantiationException, IllegalAccessException
+	{
+		for( Annotation a : candidates )
+		{
+			Provider verificator = ConstraintRegistry.provider( a.annotationType( ) );
+			if( verificator == null )
+			{
+				// Flattens composed constraints into their verification annotations
+				for( Annotation composed : ConstraintRegistry.composed( a.annotationType( ) ) )
+				{
+					if( isVerified( composed, groups ) )
+					{
+						annotations.add( composed );
+						verificators.add( ConstraintRegistry.provider( composed.annotationType( ) ) );
+					}
+				}
+			}
+			else if( isVerified( a, groups ) )
+			{
+				annotations.add( a );
+				verificators.add( verificator );
+			}
+		}
+	}
+
+	/**
+	 * Checks whether the annotation belongs to one of the requested groups or
+	 * to one of their super interfaces.
+	 */
+	private static boolean isVerified( Annotation a, Class<?>[] groups )
+	{
+		Class<?>[] declared = groups( a );
+
+		for( Class<?> requested : groups )
+		{
+			for( Class<?> group : declared )
+			{
+				if( group.isAssignableFrom( requested ) )
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reads the {@code groups} attribute of an annotation, which is optional
+	 * for custom annotations.
+	 */
+	private static Class<?>[] groups( Annotation a )
+	{
+		try
+		{
+			Method m = a.annotationType( ).getMethod( "groups" );
+			if( m.getReturnType( ) == Class[].class )
+			{
+				Class<?>[] groups = (Class<?>[]) m.invoke( a );
+				if( groups.length > 0 )
+					return groups;
+			}
+		}
+		catch( ReflectiveOperationException e )
+		{
+			// Verified by default
+		}
+		return DEFAULT_GROUPS;
+	}
+
+	/**
+	 * Estimates the cost of the evaluation of the specified constraint.
+	 */
+	static int cost( Constraint c )
+	{
+		Class<?> verificator = c.verificator.type;
+
+		if( verificator == NotNullVerificator.class )
+			return 0;
+		if( c.primitive )
+			return 1;
+		if( verificator == MinVerificator.class || verificator == MaxVerificator.class
+				|| verificator == IntervalVerificator.class )
+			return 2;
+		if( verificator == MinSizeVerificator.class || verificator == MaxSizeVerificator.class )
+			return 3;
+		return 4;
+	}
+
+	/**
+	 * Asks the available backends for a verificator of the specified class.
+	 */
+	private static ClassVerificator compile( Class<?> type, List<Constraint> constraints )
+	{
+		if( constraints.isEmpty( ) )
+			return null;
+
+		for( ClassVerificatorFactory factory : FACTORIES )
+		{
+			ClassVerificator compiled = factory.create( type, constraints );
+			if( compiled != null )
+				return compiled;
+		}
+		return null;
+	}
+
+	private static List<ClassVerificatorFactory> loadFactories( )
+	{
+		List<ClassVerificatorFactory> factories = new ArrayList<ClassVerificatorFactory>( );
+
+		if( Boolean.parseBoolean( System.getProperty( ClassVerificatorFactory.ENABLED_PROPERTY, "true" ) ) )
+		{
+			// Classes generated at compile time are preferred
+			factories.add( new PrecompiledVerificatorFactory( ) );
+
+			for( ClassVerificatorFactory factory : ServiceLoader.load( ClassVerificatorFactory.class,
+					VerificationPlan.class.getClassLoader( ) ) )
+			{
+				factories.add( factory );
+			}
+		}
+		return Collections.unmodifiableList( factories );
+	}
+
+	/**
+	 * A planned field, its accessor and all of its verification annotations.
+	 * Constraints of the same kind are fused, so that the value of the field
+	 * is compared against one range or measured only once.
+	 */
+	static final class Property
+	{
+		final Field			field;
+		final FieldAccessor	accessor;
+
+		/**
+		 * Whether the field is read and verified as primitive value of the
+		 * kind of its accessor.
+		 */
+		final boolean		primitive;
+		final Constraint[]	constraints;
+
+		/**
+		 * The constraints neither fused into the range nor into the sizes,
+		 * which are evaluated one by one. Constraints passing every value of
+		 * the field are left out.
+		 */
+		final Constraint[]	checks;
+
+		/**
+		 * The fused range constraints of a numeric field or {@code null}.
+		 */
+		final FusedRange	range;
+
+		/**
+		 * The size constraints, evaluated against a single measurement up to
+		 * the largest of their limits.
+		 */
+		final Constraint[]	sizes;
+		final long			sizeLimit;
+
+		private Property( Field field, FieldAccessor accessor, boolean primitive, Constraint[] constraints )
+		{
+			this.field = field;
+			this.accessor = accessor;
+			this.primitive = primitive;
+			this.constraints = constraints;
+
+			// Constraints passing every value are dropped
+			List<Constraint> checks = new ArrayList<Constraint>( );
+			for( Constraint c : constraints )
+			{
+				if( !isRedundant( c ) )
+					checks.add( c );
+			}
+
+			Constraint[] effective = checks.toArray( new Constraint[checks.size( )] );
+			this.range = ( primitive || Number.class.isAssignableFrom( field.getType( ) ) )
+					? FusedRange.of( effective ) : null;
+
+			List<Constraint> sizes = new ArrayList<Constraint>( );
+			long sizeLimit = 0;
+			if( !primitive )
+			{
+				for( Constraint c : effective )
+				{
+					if( c.size != null )
+					{
+						sizes.add( c );
+						sizeLimit = Math.max( sizeLimit, c.limit );
+					}
+				}
+			}
+
+			// A single size constraint is measured by itself
+			if( sizes.size( ) < 2 )
+				sizes.clear( );
+
+			this.sizes = sizes.toArray( new Constraint[sizes.size( )] );
+			this.sizeLimit = sizeLimit;
+
+			checks.removeAll( sizes );
+			if( range != null )
+				checks.removeAll( Arrays.asList( range.constraints ) );
+			this.checks = checks.toArray( new Constraint[checks.size( )] );
+		}
+	}
+}
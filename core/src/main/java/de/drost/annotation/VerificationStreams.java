@@ -0,0 +1,292 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import de.drost.annotation.AVerification.Result;
+
+/**
+ * Verifies sequences of records pulled from a {@link Stream} or an
+ * {@link Iterator} one by one, so the memory used does not depend on the
+ * number of records. Each record is evaluated once and only the
+ * {@link Result}s of invalid records are handed on. The violations are named
+ * by the position of the record
+ * within the sequence like {@code [3].price}, {@code null} records are
+ * skipped.
+ * <p>
+ * All records are pulled lazily by the consumer of the returned streams, so
+ * a slow consumer slows down the source as well.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class VerificationStreams
+{
+	private VerificationStreams( )
+	{
+
+	}
+
+	/**
+	 * Returns the violations of all invalid records.
+	 * 
+	 * @param records
+	 *            The records to be verified.
+	 * @return A lazy stream of the violations, which closes the
+	 *         specified stream when closed.
+	 */
+	public static Stream<Violation> violations( Stream<?> records )
+	{
+		return violations( records.iterator( ) ).onClose( records::close );
+	}
+
+	/**
+	 * Returns the violations of all invalid records.
+	 * 
+	 * @param records
+	 *            The records to be verified.
+	 * @return A lazy stream of the violations.
+	 */
+	public static Stream<Violation> violations( Iterator<?> records )
+	{
+		return stream( new Violations( new InvalidRecords( records, Long.MAX_VALUE ) ) );
+	}
+
+	/**
+	 * Verifies all records and passes them either to the valid or to the
+	 * invalid sink.
+	 * 
+	 * @param records
+	 *            The records to be verified.
+	 * @param valid
+	 *            Receives all valid records.
+	 * @param invalid
+	 *            Receives all invalid records together with their result.
+	 * @return The number of invalid records.
+	 */
+	public static <T> long split( Stream<T> records, Consumer<? super T> valid,
+			BiConsumer<? super T, Result> invalid )
+	{
+		try
+		{
+			return split( records.iterator( ), valid, invalid );
+		}
+		finally
+		{
+			records.close( );
+		}
+	}
+
+	/**
+	 * Verifies all records and passes them either to the valid or to the
+	 * invalid sink.
+	 * 
+	 * @param records
+	 *            The records to be verified.
+	 * @param valid
+	 *            Receives all valid records.
+	 * @param invalid
+	 *            Receives all invalid records together with their result.
+	 * @return The number of invalid records.
+	 */
+	public static <T> long split( Iterator<T> records, Consumer<? super T> valid,
+			BiConsumer<? super T, Result> invalid )
+	{
+		long count = 0;
+
+		for( long index = 0; records.hasNext( ); index++ )
+		{
+			T record = records.next( );
+			if( record == null )
+				continue;
+
+			Result result = verify( record, index );
+			if( result == null )
+			{
+				valid.accept( record );
+			}
+			else
+			{
+				invalid.accept( record, result );
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Verifies the records in batches of the specified size. Each batch is
+	 * only pulled from the source when the next result is requested.
+	 * 
+	 * @param records
+	 *            The records to be verified.
+	 * @param size
+	 *            The number of records per batch.
+	 * @return A lazy stream of one result per batch, merging the results of
+	 *         the invalid records of the batch.
+	 */
+	public static Stream<Result> batches( Iterator<?> records, final int size )
+	{
+		if( size <= 0 )
+			throw new IllegalArgumentException( "Batch size must be positive: " + size );
+
+		final InvalidRecords invalid = new InvalidRecords( records, size );
+
+		return stream( new Iterator<Result>( )
+		{
+			@Override
+			public boolean hasNext( )
+			{
+				return invalid.records.hasNext( );
+			}
+
+			@Override
+			public Result next( )
+			{
+				if( !hasNext( ) )
+					throw new NoSuchElementException( );
+
+				Result batch = new Result( );
+				invalid.limit = invalid.index + size;
+				while( invalid.hasNext( ) )
+				{
+					batch.merge( invalid.next( ) );
+				}
+				return batch;
+			}
+		} );
+	}
+
+	/**
+	 * Verifies one record.
+	 * 
+	 * @return The result of the record or {@code null} if it is valid.
+	 */
+	private static Result verify( Object record, long index )
+	{
+		try
+		{
+			Result result = AVerification.verifyElement( record, index );
+			return result.passedAll( ) ? null : result;
+		}
+		catch( InstantiationException | IllegalAccessException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private static <T> Stream<T> stream( Iterator<T> iterator )
+	{
+		return StreamSupport.stream( Spliterators.spliteratorUnknownSize( iterator,
+				Spliterator.ORDERED | Spliterator.NONNULL ), false );
+	}
+
+	/**
+	 * Pulls the records up to a limit and returns the results of the invalid
+	 * ones.
+	 */
+	private static final class InvalidRecords implements Iterator<Result>
+	{
+		final Iterator<?>	records;
+
+		// The position of the next record and the position to stop at
+		long				index;
+		long				limit;
+
+		private Result		next;
+
+		InvalidRecords( Iterator<?> records, long limit )
+		{
+			this.records = records;
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean hasNext( )
+		{
+			while( next == null && index < limit && records.hasNext( ) )
+			{
+				Object record = records.next( );
+				if( record != null )
+				{
+					next = verify( record, index );
+				}
+				index++;
+			}
+			return next != null;
+		}
+
+		@Override
+		public Result next( )
+		{
+			if( !hasNext( ) )
+				throw new NoSuchElementException( );
+
+			Result result = next;
+			next = null;
+			return result;
+		}
+	}
+
+	/**
+	 * Flattens the results of the invalid records into their violations.
+	 */
+	private static final class Violations implements Iterator<Violation>
+	{
+		private final Iterator<Result>	results;
+		private Iterator<Violation>		violations	= Collections.<Violation> emptyIterator( );
+
+		Violations( Iterator<Result> results )
+		{
+			this.results = results;
+		}
+
+		@Override
+		public boolean hasNext( )
+		{
+			while( !violations.hasNext( ) )
+			{
+				if( !results.hasNext( ) )
+					return false;
+
+				violations = results.next( ).getViolations( ).iterator( );
+			}
+			return true;
+		}
+
+		@Override
+		public Violation next( )
+		{
+			if( !hasNext( ) )
+				throw new NoSuchElementException( );
+
+			return violations.next( );
+		}
+	}
+}
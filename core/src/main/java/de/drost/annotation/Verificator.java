@@ -23,6 +23,10 @@ import java.lang.annotation.Annotation;
 
 /**
  * Interface for all annotation verification types.
+ * <p>
+ * Implementations are created once by the {@link VerificatorRegistry} and
+ * shared between threads, so they should not keep any state. Otherwise they
+ * have to be annotated with {@link Stateful}.
  * 
  * @author kimschorat
  *
@@ -0,0 +1,272 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * Creates and caches the {@link Verificator} instances used to evaluate the
+ * verification annotations.
+ * <p>
+ * A verificator is instantiated only once and shared by all threads if it is
+ * stateless, which means neither the class nor any of its super classes
+ * declare a non-final instance field. Implementations annotated with
+ * {@link Stateful} get one instance per thread or per call instead, depending
+ * on the declared {@link Stateful.Scope}. Verificators holding mutable fields
+ * without that annotation are never shared and fall back to a new instance per
+ * call.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class VerificatorRegistry
+{
+	private static final ClassValue<Provider> PROVIDERS = new ClassValue<Provider>( )
+	{
+		@Override
+		protected Provider computeValue( Class<?> type )
+		{
+			try
+			{
+				return createProvider( type );
+			}
+			catch( InstantiationException | IllegalAccessException e )
+			{
+				throw new UndeclaredThrowableException( e );
+			}
+		}
+	};
+
+	private VerificatorRegistry( )
+	{
+
+	}
+
+	/**
+	 * Returns an instance of the specified verificator type. Stateless
+	 * verificators are created only once, so repeated calls return the same
+	 * instance.
+	 * 
+	 * @param type
+	 *            The verificator implementation.
+	 * @return An instance of the specified type.
+	 * @throws InstantiationException
+	 *             If the verificator could not be created.
+	 * @throws IllegalAccessException
+	 *             If the constructor of the verificator is not accessible.
+	 */
+	public static <T extends Verificator<?, ?>> T get( Class<T> type ) throws InstantiationException, IllegalAccessException
+	{
+		return type.cast( provider( type ).get( ) );
+	}
+
+	/**
+	 * Checks whether instances of the specified verificator type are shared.
+	 * 
+	 * @param type
+	 *            The verificator implementation.
+	 * @return {@code true} if the registry reuses a single instance of the
+	 *         type for all threads, otherwise {@code false}.
+	 */
+	public static boolean isShared( Class<?> type )
+	{
+		return type.getAnnotation( Stateful.class ) == null && isStateless( type );
+	}
+
+	/**
+	 * Returns the cached provider of the specified verificator type.
+	 * 
+	 * @param type
+	 *            The verificator implementation.
+	 * @return The provider creating or reusing the instances.
+	 * @throws InstantiationException
+	 * @throws IllegalAccessException
+	 */
+	static Provider provider( Class<?> type ) throws InstantiationException, IllegalAccessException
+	{
+		try
+		{
+			return PROVIDERS.get( type );
+		}
+		catch( UndeclaredThrowableException e )
+		{
+			Throwable cause = e.getCause( );
+			if( cause instanceof InstantiationException )
+				throw (InstantiationException) cause;
+			if( cause instanceof IllegalAccessException )
+				throw (IllegalAccessException) cause;
+			throw e;
+		}
+	}
+
+	private static Provider createProvider( Class<?> type ) throws InstantiationException, IllegalAccessException
+	{
+		if( !Verificator.class.isAssignableFrom( type ) )
+			throw new InstantiationException( type.getName( ) + " is not a verificator" );
+
+		final Constructor<?> constructor;
+		try
+		{
+			constructor = type.getDeclaredConstructor( );
+		}
+		catch( NoSuchMethodException e )
+		{
+			InstantiationException ie = new InstantiationException( type.getName( ) + " has no default constructor" );
+			ie.initCause( e );
+			throw ie;
+		}
+
+		if( !Modifier.isPublic( constructor.getModifiers( ) )
+				|| !Modifier.isPublic( type.getModifiers( ) ) )
+		{
+			constructor.setAccessible( true );
+		}
+
+		Stateful stateful = type.getAnnotation( Stateful.class );
+
+		if( stateful == null && isStateless( type ) )
+		{
+			return new Singleton( type, newInstance( constructor ) );
+		}
+
+		if( stateful != null && stateful.value( ) == Stateful.Scope.THREAD )
+		{
+			// Creates the first instance eagerly to report errors right away
+			return new PerThread( type, constructor, newInstance( constructor ) );
+		}
+
+		return new PerCall( type, constructor );
+	}
+
+	/**
+	 * Checks whether the specified class and all of its super classes only
+	 * declare final or static fields.
+	 */
+	private static boolean isStateless( Class<?> type )
+	{
+		for( Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass( ) )
+		{
+			for( Field f : c.getDeclaredFields( ) )
+			{
+				int modifiers = f.getModifiers( );
+				if( !Modifier.isStatic( modifiers ) && !Modifier.isFinal( modifiers ) )
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static Verificator<?, ?> newInstance( Constructor<?> constructor )
+			throws InstantiationException, IllegalAccessException
+	{
+		try
+		{
+			return (Verificator<?, ?>) constructor.newInstance( );
+		}
+		catch( InvocationTargetException e )
+		{
+			InstantiationException ie = new InstantiationException(
+					"Failed to create " + constructor.getDeclaringClass( ).getName( ) );
+			ie.initCause( e.getCause( ) );
+			throw ie;
+		}
+	}
+
+	/**
+	 * Supplies the verificator instances of one implementation.
+	 */
+	static abstract class Provider
+	{
+		/**
+		 * The verificator implementation.
+		 */
+		final Class<?> type;
+
+		Provider( Class<?> type )
+		{
+			this.type = type;
+		}
+
+		abstract Verificator<?, ?> get( ) throws InstantiationException, IllegalAccessException;
+	}
+
+	private static final class Singleton extends Provider
+	{
+		private final Verificator<?, ?> instance;
+
+		Singleton( Class<?> type, Verificator<?, ?> instance )
+		{
+			super( type );
+			this.instance = instance;
+		}
+
+		@Override
+		Verificator<?, ?> get( )
+		{
+			return instance;
+		}
+	}
+
+	private static final class PerThread extends Provider
+	{
+		private final Constructor<?>					constructor;
+		private final ThreadLocal<Verificator<?, ?>>	instances	= new ThreadLocal<Verificator<?, ?>>( );
+
+		PerThread( Class<?> type, Constructor<?> constructor, Verificator<?, ?> first )
+		{
+			super( type );
+			this.constructor = constructor;
+			this.instances.set( first );
+		}
+
+		@Override
+		Verificator<?, ?> get( ) throws InstantiationException, IllegalAccessException
+		{
+			Verificator<?, ?> v = instances.get( );
+			if( v == null )
+			{
+				v = newInstance( constructor );
+				instances.set( v );
+			}
+			return v;
+		}
+	}
+
+	private static final class PerCall extends Provider
+	{
+		private final Constructor<?> constructor;
+
+		PerCall( Class<?> type, Constructor<?> constructor )
+		{
+			super( type );
+			this.constructor = constructor;
+		}
+
+		@Override
+		Verificator<?, ?> get( ) throws InstantiationException, IllegalAccessException
+		{
+			return newInstance( constructor );
+		}
+	}
+}
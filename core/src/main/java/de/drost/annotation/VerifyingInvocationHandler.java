@@ -0,0 +1,68 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Forwards the calls of a proxy to its target, verifying the arguments before
+ * and the returned value after each call of a constrained method.
+ * 
+ * @author kimschorat
+ *
+ */
+final class VerifyingInvocationHandler implements InvocationHandler
+{
+	private final Object					target;
+	private final Map<Method, MethodPlan>	plans;
+
+	VerifyingInvocationHandler( Object target, Map<Method, MethodPlan> plans )
+	{
+		this.target = target;
+		this.plans = plans;
+	}
+
+	@Override
+	public Object invoke( Object proxy, Method method, Object[] args ) throws Throwable
+	{
+		MethodPlan plan = plans.get( method );
+
+		if( plan != null )
+			plan.verifyParameters( args );
+
+		Object value;
+		try
+		{
+			value = method.invoke( target, args );
+		}
+		catch( InvocationTargetException e )
+		{
+			throw e.getCause( );
+		}
+
+		if( plan != null )
+			plan.verifyReturn( value );
+
+		return value;
+	}
+}
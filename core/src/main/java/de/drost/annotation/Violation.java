@@ -0,0 +1,105 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+
+/**
+ * A constraint violated by the value of a field, as reported by
+ * {@link AVerification.Result#getViolations()}.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class Violation
+{
+	private final String		path;
+	private final Annotation	constraint;
+	private final String		bound;
+	private final Object		value;
+
+	Violation( String path, Constraint constraint, Object value )
+	{
+		this.path = path;
+		this.constraint = constraint.annotation;
+		this.bound = constraint.bound;
+		this.value = value;
+	}
+
+	/**
+	 * The property path of the field, like {@code items[0].price}.
+	 * 
+	 * @return the path of the violating field.
+	 */
+	public String getPath( )
+	{
+		return path;
+	}
+
+	/**
+	 * The violated annotation.
+	 * 
+	 * @return the annotation of the constraint.
+	 */
+	public Annotation getConstraint( )
+	{
+		return constraint;
+	}
+
+	/**
+	 * The bound of the violated constraint, rendered from the attributes of
+	 * its annotation without the validation groups.
+	 * 
+	 * @return the bound like {@code 0.0, 50.0} or {@code null} if the
+	 *         annotation has no attributes.
+	 */
+	public String getBound( )
+	{
+		return bound;
+	}
+
+	/**
+	 * The value of the field at the time the violations have been
+	 * collected.
+	 * 
+	 * @return the violating value, boxed for primitive fields.
+	 */
+	public Object getValue( )
+	{
+		return value;
+	}
+
+	@Override
+	public String toString( )
+	{
+		StringBuilder out = new StringBuilder( );
+		try
+		{
+			ViolationFormatter.format( this, out );
+		}
+		catch( IOException e )
+		{
+			throw new UncheckedIOException( e );
+		}
+		return out.toString( );
+	}
+}
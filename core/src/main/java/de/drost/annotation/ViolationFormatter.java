@@ -0,0 +1,388 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.drost.annotation.AVerification.Result;
+
+/**
+ * Writes verification results into a caller supplied {@link Appendable},
+ * either as text with one line per violation or as JSON array.
+ * <p>
+ * The bound of each annotation, the attributes rendered as text, is created
+ * once together with its {@link Constraint}, and the name of each annotation
+ * type is cached, so that formatting only appends prepared strings. Values are only rendered for
+ * numbers, booleans, characters and enums, so that the content of strings
+ * like passwords does not end up in logs.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class ViolationFormatter
+{
+	private static final String				CTRL		= "\r\n";
+
+	/**
+	 * Attributes rendered before all other attributes of an annotation, in
+	 * this order.
+	 */
+	private static final List<String>		LEADING		= Arrays.asList( "value", "min", "max", "inclusive" );
+
+	private static final ClassValue<Template>	TEMPLATES	= new ClassValue<Template>( )
+	{
+		@Override
+		protected Template computeValue( Class<?> type )
+		{
+			return new Template( type );
+		}
+	};
+
+	private ViolationFormatter( )
+	{
+
+	}
+
+	/**
+	 * The name and the attribute accessors of one annotation type, used once
+	 * per annotation to render its bound.
+	 */
+	private static final class Template
+	{
+		final String	name;
+		final String	simpleName;
+		final Method[]	attributes;
+
+		Template( Class<?> type )
+		{
+			this.name = "@" + type.getSimpleName( );
+			this.simpleName = type.getSimpleName( );
+
+			List<Method> attributes = new ArrayList<Method>( );
+			for( Method m : type.getDeclaredMethods( ) )
+			{
+				if( m.getParameterCount( ) > 0 || Modifier.isStatic( m.getModifiers( ) )
+						|| m.getName( ).equals( "groups" ) )
+					continue;
+
+				try
+				{
+					m.setAccessible( true );
+				}
+				catch( RuntimeException e )
+				{
+					// Only rendered if public
+				}
+				attributes.add( m );
+			}
+
+			attributes.sort( new Comparator<Method>( )
+			{
+				@Override
+				public int compare( Method a, Method b )
+				{
+					int i = rank( a.getName( ) );
+					int j = rank( b.getName( ) );
+					return ( i != j ) ? Integer.compare( i, j ) : a.getName( ).compareTo( b.getName( ) );
+				}
+			} );
+			this.attributes = attributes.toArray( new Method[attributes.size( )] );
+		}
+
+		private static int rank( String attribute )
+		{
+			int i = LEADING.indexOf( attribute );
+			return ( i >= 0 ) ? i : LEADING.size( );
+		}
+
+		/**
+		 * Appends the attributes of the annotation separated by commas.
+		 * 
+		 * @return {@code false} if nothing has been appended.
+		 */
+		boolean appendBound( Annotation a, Appendable out ) throws IOException
+		{
+			boolean appended = false;
+			for( Method m : attributes )
+			{
+				Object value;
+				try
+				{
+					value = m.invoke( a );
+				}
+				catch( IllegalAccessException | InvocationTargetException e )
+				{
+					continue;
+				}
+
+				if( appended )
+					out.append( ", " );
+				appendAttribute( value, out );
+				appended = true;
+			}
+			return appended;
+		}
+	}
+
+	/**
+	 * Writes each violation of the result as one line of text.
+	 * 
+	 * @param result
+	 *            The result to write the violations of.
+	 * @param out
+	 *            The target, like a {@code StringBuilder} or a
+	 *            {@code Writer}.
+	 * @throws IOException
+	 *             If the target fails.
+	 */
+	public static void format( Result result, Appendable out ) throws IOException
+	{
+		for( Violation v : result.getViolations( ) )
+		{
+			format( v, out );
+			out.append( CTRL );
+		}
+	}
+
+	/**
+	 * Writes the violation as text, like
+	 * {@code 'age' (121) has NOT been verified by @Max(120.0)}.
+	 */
+	public static void format( Violation violation, Appendable out ) throws IOException
+	{
+		appendEvaluation( violation.getPath( ), display( violation.getValue( ) ), violation.getConstraint( ),
+				violation.getBound( ), false, out );
+	}
+
+	/**
+	 * Writes the violations of the result as JSON array of objects with the
+	 * members {@code path}, {@code constraint}, {@code bound} and
+	 * {@code value}. The latter two are left out if there is no bound or the
+	 * value is not rendered.
+	 * 
+	 * @param result
+	 *            The result to write the violations of.
+	 * @param out
+	 *            The target, like a {@code StringBuilder} or a
+	 *            {@code Writer}.
+	 * @throws IOException
+	 *             If the target fails.
+	 */
+	public static void formatJson( Result result, Appendable out ) throws IOException
+	{
+		out.append( '[' );
+		boolean first = true;
+		for( Violation v : result.getViolations( ) )
+		{
+			if( !first )
+				out.append( ',' );
+			formatJson( v, out );
+			first = false;
+		}
+		out.append( ']' );
+	}
+
+	/**
+	 * Writes the violation as JSON object.
+	 */
+	public static void formatJson( Violation violation, Appendable out ) throws IOException
+	{
+		Annotation a = violation.getConstraint( );
+
+		out.append( "{\"path\":" );
+		appendJsonString( violation.getPath( ), out );
+		out.append( ",\"constraint\":" );
+		appendJsonString( TEMPLATES.get( a.annotationType( ) ).simpleName, out );
+
+		String bound = violation.getBound( );
+		if( bound != null )
+		{
+			out.append( ",\"bound\":" );
+			appendJsonString( bound, out );
+		}
+
+		Object value = violation.getValue( );
+		String display = display( value );
+		if( value == null || display != null )
+		{
+			out.append( ",\"value\":" );
+			if( value instanceof Boolean || isJsonNumber( value ) )
+				out.append( display );
+			else if( value == null )
+				out.append( "null" );
+			else
+				appendJsonString( display, out );
+		}
+		out.append( '}' );
+	}
+
+	/**
+	 * Renders the bound of the annotation, which is done reflectively and
+	 * therefore only once for each {@link Constraint}.
+	 * 
+	 * @return The attributes separated by commas or {@code null} if the
+	 *         annotation has none besides its groups.
+	 */
+	static String bound( Annotation a )
+	{
+		StringBuilder out = new StringBuilder( );
+		try
+		{
+			return TEMPLATES.get( a.annotationType( ) ).appendBound( a, out ) ? out.toString( ) : null;
+		}
+		catch( IOException e )
+		{
+			throw new UncheckedIOException( e );
+		}
+	}
+
+	/**
+	 * Appends the evaluation of one constraint, which is also the text of an
+	 * {@link AVerification.Evaluation}.
+	 * 
+	 * @param value
+	 *            The rendered value or {@code null} if it is left out.
+	 * @param bound
+	 *            The rendered bound of the annotation or {@code null} if it
+	 *            has none.
+	 */
+	static void appendEvaluation( String member, String value, Annotation a, String bound, boolean passed,
+			Appendable out ) throws IOException
+	{
+		out.append( '\'' ).append( member ).append( "' " );
+		if( value != null )
+		{
+			out.append( '(' ).append( value ).append( ") " );
+		}
+		out.append( passed ? "has been verified by " : "has NOT been verified by " )
+				.append( TEMPLATES.get( a.annotationType( ) ).name );
+
+		if( bound != null )
+		{
+			out.append( '(' ).append( bound ).append( ')' );
+		}
+	}
+
+	/**
+	 * Renders the value if it is of a type safe to print.
+	 * 
+	 * @return The value or {@code null} if it is left out.
+	 */
+	static String display( Object value )
+	{
+		if( value instanceof Number || value instanceof Boolean || value instanceof Character
+				|| value instanceof Enum )
+			return String.valueOf( value );
+		return null;
+	}
+
+	/**
+	 * Checks whether the value is a number of the JDK whose text is a valid
+	 * JSON number. Other implementations of {@link Number} may render any
+	 * text, so they are quoted.
+	 */
+	private static boolean isJsonNumber( Object value )
+	{
+		if( value instanceof Double || value instanceof Float )
+			return Double.isFinite( ( (Number) value ).doubleValue( ) );
+		return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof BigInteger || value instanceof BigDecimal || value instanceof AtomicInteger
+				|| value instanceof AtomicLong;
+	}
+
+	private static void appendAttribute( Object value, Appendable out ) throws IOException
+	{
+		if( value instanceof Class )
+		{
+			out.append( ( (Class<?>) value ).getSimpleName( ) );
+		}
+		else if( value instanceof Annotation )
+		{
+			out.append( TEMPLATES.get( ( (Annotation) value ).annotationType( ) ).name );
+		}
+		else if( value != null && value.getClass( ).isArray( ) )
+		{
+			out.append( '{' );
+			for( int i = 0; i < Array.getLength( value ); i++ )
+			{
+				if( i > 0 )
+					out.append( ", " );
+				appendAttribute( Array.get( value, i ), out );
+			}
+			out.append( '}' );
+		}
+		else
+		{
+			out.append( String.valueOf( value ) );
+		}
+	}
+
+	private static void appendJsonString( String s, Appendable out ) throws IOException
+	{
+		out.append( '"' );
+		for( int i = 0; i < s.length( ); i++ )
+		{
+			char c = s.charAt( i );
+			switch( c )
+			{
+				case '"':
+					out.append( "\\\"" );
+					break;
+				case '\\':
+					out.append( "\\\\" );
+					break;
+				case '\n':
+					out.append( "\\n" );
+					break;
+				case '\r':
+					out.append( "\\r" );
+					break;
+				case '\t':
+					out.append( "\\t" );
+					break;
+				default:
+					if( c < 0x20 )
+					{
+						out.append( "\\u00" ).append( Character.forDigit( c >>> 4, 16 ) )
+								.append( Character.forDigit( c & 0xF, 16 ) );
+					}
+					else
+					{
+						out.append( c );
+					}
+			}
+		}
+		out.append( '"' );
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.prove;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import de.drost.annotation.AnnotationVerification;
+import de.drost.annotation.verification.DecimalMaxVerificator;
+
+/**
+ * Exact maximum of a numeric value. Unlike {@link Max}, the bound is given
+ * as decimal string and compared without rounding, so that it also holds
+ * for {@code long} values beyond 2^53 and for {@code BigDecimal} amounts.
+ * 
+ * @author kimschorat
+ *
+ */
+@AnnotationVerification( verifiedBy = DecimalMaxVerificator.class )
+@Retention( RetentionPolicy.RUNTIME )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
+public @interface DecimalMax
+{
+	/**
+	 * @return The bound in the format of {@code java.math.BigDecimal}, like
+	 *         {@code "9007199254740993"} or {@code "0.01"}.
+	 */
+	String value( );
+
+	/**
+	 * @return Whether a value equal to the bound passes, {@code true} by
+	 *         default. Otherwise the value has to be strictly less than
+	 *         the bound.
+	 */
+	boolean inclusive( ) default true;
+
+	Class<?>[] groups( ) default {};
+}
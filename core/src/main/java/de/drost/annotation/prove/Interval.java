@@ -30,11 +30,13 @@ import java.lang.annotation.RetentionPolicy;
 
 @AnnotationVerification( verifiedBy = IntervalVerificator.class )
 @Retention( RetentionPolicy.RUNTIME )
-@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.LOCAL_VARIABLE})
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.LOCAL_VARIABLE, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
 //@Target( ElementType.FIELD )
 public @interface Interval
 {
 	double min( );
 
 	double max( );
+
+	Class<?>[] groups( ) default {};
 }
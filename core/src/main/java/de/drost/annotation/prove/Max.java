@@ -30,8 +30,10 @@ import de.drost.annotation.verification.MaxVerificator;
 @AnnotationVerification( verifiedBy = MaxVerificator.class )
 @Retention( RetentionPolicy.RUNTIME )
 //@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.LOCAL_VARIABLE})
-@Target( ElementType.FIELD )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
 public @interface Max
 {
 	double value( );
+
+	Class<?>[] groups( ) default {};
 }
@@ -29,15 +29,18 @@ import de.drost.annotation.verification.MaxSizeVerificator;
 
 /**
  * Assign this annotation to a class field of type {@code Collection},
- * {@code Array} or {@code String} to limit its maximum size.
+ * {@code Map}, {@code Array} or {@code CharSequence} like {@code String}
+ * to limit its maximum size.
  * 
  * @author kimschorat
  *
  */
 @AnnotationVerification( verifiedBy = MaxSizeVerificator.class )
 @Retention( RetentionPolicy.RUNTIME )
-@Target( ElementType.FIELD )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
 public @interface MaxSize
 {
 	long value( );
+
+	Class<?>[] groups( ) default {};
 }
@@ -30,8 +30,10 @@ import de.drost.annotation.verification.MinVerificator;
 @AnnotationVerification( verifiedBy = MinVerificator.class )
 @Retention( RetentionPolicy.RUNTIME )
 //@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.LOCAL_VARIABLE})
-@Target( ElementType.FIELD )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
 public @interface Min
 {
 	double value( );
+
+	Class<?>[] groups( ) default {};
 }
@@ -29,15 +29,18 @@ import de.drost.annotation.verification.MinSizeVerificator;
 
 /**
  * Assign this annotation to a class field of type {@code Collection},
- * {@code Array} or {@code String} to limit its minimum size.
+ * {@code Map}, {@code Array} or {@code CharSequence} like {@code String}
+ * to limit its minimum size.
  * 
  * @author kimschorat
  *
  */
 @AnnotationVerification( verifiedBy = MinSizeVerificator.class )
 @Retention( RetentionPolicy.RUNTIME )
-@Target( ElementType.FIELD )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
 public @interface MinSize
 {
 	long value( );
+
+	Class<?>[] groups( ) default {};
 }
@@ -29,8 +29,8 @@ import de.drost.annotation.verification.NotNullVerificator;
 
 @AnnotationVerification( verifiedBy = NotNullVerificator.class )
 @Retention( RetentionPolicy.RUNTIME )
-@Target( ElementType.FIELD )
+@Target( { ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE } )
 public @interface NotNull
 {
-
+	Class<?>[] groups( ) default {};
 }
@@ -0,0 +1,72 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.verification;
+
+/**
+ * Compares values of the different number domains against the
+ * {@code double} bounds of the numeric annotations without losing precision.
+ * 
+ * @author kimschorat
+ *
+ */
+final class Bounds
+{
+	private static final double LONG_RANGE = 0x1p63;
+
+	private Bounds( )
+	{
+
+	}
+
+	/**
+	 * @return {@code false} if and only if the value is less than the bound.
+	 */
+	static boolean atLeast( long value, double min )
+	{
+		if( min <= -LONG_RANGE || Double.isNaN( min ) )
+			return true;
+		if( min >= LONG_RANGE )
+			return false;
+		return value >= (long) Math.ceil( min );
+	}
+
+	/**
+	 * @return {@code false} if and only if the value is greater than the
+	 *         bound.
+	 */
+	static boolean atMost( long value, double max )
+	{
+		if( max >= LONG_RANGE || Double.isNaN( max ) )
+			return true;
+		if( max < -LONG_RANGE )
+			return false;
+		return value <= (long) Math.floor( max );
+	}
+
+	/**
+	 * Checks whether the number is evaluated in the {@code long} domain
+	 * instead of the {@code double} domain.
+	 */
+	static boolean isIntegral( Number value )
+	{
+		return value instanceof Integer || value instanceof Long || value instanceof Short
+				|| value instanceof Byte;
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.verification;
+
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.drost.annotation.prove.DecimalMax;
+import de.drost.annotation.prove.DecimalMin;
+
+/**
+ * The exact bound of a {@link DecimalMin} or {@link DecimalMax} constraint,
+ * parsed once and converted into the domain of the declared type of the
+ * constrained value. Integral values are compared against the tightest
+ * {@code long} bound, floating point values against the tightest
+ * {@code double} or {@code float} bound, and {@code BigDecimal} and
+ * {@code BigInteger} values by {@code compareTo}, so that no comparison
+ * loses precision.
+ * <p>
+ * Floating point values are compared by their shortest decimal
+ * representation, so that {@code 0.1} passes {@code @DecimalMax("0.1")}
+ * although the nearest {@code double} is slightly greater.
+ * <p>
+ * Like the verificators of the other numeric annotations, {@code null}
+ * values fail and {@code NaN} values pass.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class DecimalBound
+{
+	/**
+	 * The domain values of a declared type are compared in.
+	 */
+	private static enum Domain
+	{
+		LONG, DOUBLE, FLOAT, DECIMAL, INTEGER, NUMBER
+	}
+
+	private static final BigInteger	LONG_MIN	= BigInteger.valueOf( Long.MIN_VALUE );
+	private static final BigInteger	LONG_MAX	= BigInteger.valueOf( Long.MAX_VALUE );
+
+	private final BigDecimal		bound;
+	private final boolean			inclusive;
+
+	/**
+	 * Whether the bound is a minimum instead of a maximum.
+	 */
+	private final boolean			lower;
+	private final Domain			domain;
+
+	/**
+	 * The smallest passing integer of a minimum or the largest passing
+	 * integer of a maximum.
+	 */
+	private final BigInteger		integer;
+
+	/**
+	 * The {@link #integer} bound saturated to the {@code long} range, and
+	 * whether no {@code long} value passes at all.
+	 */
+	private final long				integral;
+	private final boolean			never;
+
+	/**
+	 * The smallest passing {@code double} of a minimum or the largest
+	 * passing {@code double} of a maximum, or the same as {@code float} for
+	 * values declared as {@code float}.
+	 */
+	private final double			real;
+
+	private DecimalBound( String value, boolean inclusive, boolean lower, Class<?> type )
+	{
+		try
+		{
+			this.bound = new BigDecimal( value.trim( ) );
+		}
+		catch( NumberFormatException e )
+		{
+			throw new IllegalArgumentException( "Invalid decimal bound: " + value, e );
+		}
+		this.inclusive = inclusive;
+		this.lower = lower;
+		this.domain = domain( type );
+
+		if( lower )
+		{
+			this.integer = inclusive ? bound.setScale( 0, RoundingMode.CEILING ).toBigInteger( )
+					: bound.setScale( 0, RoundingMode.FLOOR ).toBigInteger( ).add( BigInteger.ONE );
+			this.never = integer.compareTo( LONG_MAX ) > 0;
+			this.integral = ( integer.compareTo( LONG_MIN ) < 0 ) ? Long.MIN_VALUE : integer.longValue( );
+		}
+		else
+		{
+			this.integer = inclusive ? bound.setScale( 0, RoundingMode.FLOOR ).toBigInteger( )
+					: bound.setScale( 0, RoundingMode.CEILING ).toBigInteger( ).subtract( BigInteger.ONE );
+			this.never = integer.compareTo( LONG_MIN ) < 0;
+			this.integral = ( integer.compareTo( LONG_MAX ) > 0 ) ? Long.MAX_VALUE : integer.longValue( );
+		}
+		this.real = ( domain == Domain.FLOAT ) ? realFloat( ) : real( );
+	}
+
+	/**
+	 * Creates the bound of the specified annotation for values of the
+	 * specified type.
+	 * 
+	 * @param annotation
+	 *            A {@link DecimalMin} or {@link DecimalMax} annotation.
+	 * @param type
+	 *            The declared type of the constrained values, which selects
+	 *            the comparison.
+	 * @return The bound or {@code null} if the annotation has no decimal
+	 *         bound.
+	 * @throws IllegalArgumentException
+	 *             If the bound is no decimal number.
+	 */
+	public static DecimalBound of( Annotation annotation, Class<?> type )
+	{
+		if( annotation instanceof DecimalMin )
+		{
+			DecimalMin min = (DecimalMin) annotation;
+			return new DecimalBound( min.value( ), min.inclusive( ), true, type );
+		}
+		if( annotation instanceof DecimalMax )
+		{
+			DecimalMax max = (DecimalMax) annotation;
+			return new DecimalBound( max.value( ), max.inclusive( ), false, type );
+		}
+		return null;
+	}
+
+	private static Domain domain( Class<?> type )
+	{
+		if( type == long.class || type == int.class || type == short.class || type == byte.class
+				|| type == char.class || type == Long.class || type == Integer.class || type == Short.class
+				|| type == Byte.class )
+			return Domain.LONG;
+		if( type == double.class || type == Double.class )
+			return Domain.DOUBLE;
+		if( type == float.class || type == Float.class )
+			return Domain.FLOAT;
+		if( type == BigDecimal.class )
+			return Domain.DECIMAL;
+		if( type == BigInteger.class )
+			return Domain.INTEGER;
+		return Domain.NUMBER;
+	}
+
+	/**
+	 * Finds the tightest {@code double} bound, which every passing
+	 * {@code double} value is at least or at most.
+	 */
+	private double real( )
+	{
+		double d = bound.doubleValue( );
+
+		if( lower )
+		{
+			if( d == Double.NEGATIVE_INFINITY )
+				return -Double.MAX_VALUE;
+			if( d != Double.POSITIVE_INFINITY && !passes( BigDecimal.valueOf( d ) ) )
+				return Math.nextUp( d );
+		}
+		else
+		{
+			if( d == Double.POSITIVE_INFINITY )
+				return Double.MAX_VALUE;
+			if( d != Double.NEGATIVE_INFINITY && !passes( BigDecimal.valueOf( d ) ) )
+				return Math.nextDown( d );
+		}
+		return d;
+	}
+
+	/**
+	 * Finds the tightest {@code float} bound like {@link #real()}.
+	 */
+	private double realFloat( )
+	{
+		float f = bound.floatValue( );
+
+		if( lower )
+		{
+			if( f == Float.NEGATIVE_INFINITY )
+				return -Float.MAX_VALUE;
+			if( f != Float.POSITIVE_INFINITY && !passes( new BigDecimal( Float.toString( f ) ) ) )
+				return Math.nextUp( f );
+		}
+		else
+		{
+			if( f == Float.POSITIVE_INFINITY )
+				return Float.MAX_VALUE;
+			if( f != Float.NEGATIVE_INFINITY && !passes( new BigDecimal( Float.toString( f ) ) ) )
+				return Math.nextDown( f );
+		}
+		return f;
+	}
+
+	private boolean passes( BigDecimal value )
+	{
+		int c = value.compareTo( bound );
+		if( !lower )
+			c = -c;
+		return c > 0 || ( inclusive && c == 0 );
+	}
+
+	private boolean passes( BigInteger value )
+	{
+		int c = value.compareTo( integer );
+		return lower ? c >= 0 : c <= 0;
+	}
+
+	public boolean test( long value )
+	{
+		if( never )
+			return false;
+		return lower ? value >= integral : value <= integral;
+	}
+
+	public boolean test( double value )
+	{
+		return lower ? !( value < real ) : !( value > real );
+	}
+
+	/**
+	 * Checks a boxed or arbitrary precision number, compared within the
+	 * domain of the declared type.
+	 * 
+	 * @return {@code false} if the value is {@code null} or violates the
+	 *         bound.
+	 */
+	public boolean test( Object value )
+	{
+		if( value == null )
+			return false;
+
+		switch( domain )
+		{
+			case LONG:
+				return test( ( (Number) value ).longValue( ) );
+			case DOUBLE:
+			case FLOAT:
+				return test( ( (Number) value ).doubleValue( ) );
+			case DECIMAL:
+				return passes( (BigDecimal) value );
+			case INTEGER:
+				return passes( (BigInteger) value );
+			default:
+				return testNumber( (Number) value );
+		}
+	}
+
+	/**
+	 * Checks a number of a type only known at runtime.
+	 */
+	private boolean testNumber( Number value )
+	{
+		if( value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof AtomicInteger || value instanceof AtomicLong )
+			return test( value.longValue( ) );
+		if( value instanceof Float && Float.isFinite( (Float) value ) )
+			return passes( new BigDecimal( value.toString( ) ) );
+		if( value instanceof Double || value instanceof Float )
+			return test( value.doubleValue( ) );
+		if( value instanceof BigDecimal )
+			return passes( (BigDecimal) value );
+		if( value instanceof BigInteger )
+			return passes( (BigInteger) value );
+
+		try
+		{
+			return passes( new BigDecimal( value.toString( ) ) );
+		}
+		catch( NumberFormatException e )
+		{
+			return test( value.doubleValue( ) );
+		}
+	}
+
+	@Override
+	public String toString( )
+	{
+		return ( lower ? ( inclusive ? ">= " : "> " ) : ( inclusive ? "<= " : "< " ) ) + bound.toPlainString( );
+	}
+}
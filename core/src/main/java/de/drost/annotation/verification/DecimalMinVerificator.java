@@ -0,0 +1,64 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.verification;
+
+import de.drost.annotation.DoubleVerificator;
+import de.drost.annotation.IntVerificator;
+import de.drost.annotation.LongVerificator;
+import de.drost.annotation.Verificator;
+import de.drost.annotation.prove.DecimalMin;
+
+/**
+ * Verifies {@link DecimalMin} by parsing its bound for every call. Planned
+ * constraints compare against a {@link DecimalBound} parsed once for the
+ * declared type of their field instead.
+ * 
+ * @author kimschorat
+ *
+ */
+public class DecimalMinVerificator implements Verificator<Number, DecimalMin>, IntVerificator<DecimalMin>,
+		LongVerificator<DecimalMin>, DoubleVerificator<DecimalMin>
+{
+
+	@Override
+	public boolean verify( Number value, DecimalMin annotation )
+	{
+		return DecimalBound.of( annotation, Number.class ).test( value );
+	}
+
+	@Override
+	public boolean verify( int value, DecimalMin annotation )
+	{
+		return DecimalBound.of( annotation, int.class ).test( value );
+	}
+
+	@Override
+	public boolean verify( long value, DecimalMin annotation )
+	{
+		return DecimalBound.of( annotation, long.class ).test( value );
+	}
+
+	@Override
+	public boolean verify( double value, DecimalMin annotation )
+	{
+		return DecimalBound.of( annotation, double.class ).test( value );
+	}
+
+}
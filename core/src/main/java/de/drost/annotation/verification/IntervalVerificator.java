@@ -19,10 +19,14 @@
  */
 package de.drost.annotation.verification;
 
+import de.drost.annotation.DoubleVerificator;
+import de.drost.annotation.IntVerificator;
+import de.drost.annotation.LongVerificator;
 import de.drost.annotation.Verificator;
 import de.drost.annotation.prove.Interval;
 
-public class IntervalVerificator implements Verificator<Number, Interval>
+public class IntervalVerificator implements Verificator<Number, Interval>, IntVerificator<Interval>, LongVerificator<Interval>,
+		DoubleVerificator<Interval>
 {
 
 	@Override
@@ -31,37 +35,31 @@ public class IntervalVerificator implements Verificator<Number, Interval>
 		if(value == null)
 			return false;
 		
-		if(value.doubleValue( ) < annotation.min( ) || value.doubleValue( ) > annotation.max( ))
+		// Compares the value within its own domain
+		if(Bounds.isIntegral( value ))
 		{
-			return false;
-		}
-		
-		if(value.floatValue( ) < annotation.min( ) || value.floatValue( ) > annotation.max( ))
-		{
-			return false;
-		}
-		
-		if(value.intValue( ) < annotation.min( ) || value.intValue( ) > annotation.max( ))
-		{
-			return false;
-		}
-		
-		if(value.longValue( ) < annotation.min( ) || value.longValue( ) > annotation.max( ))
-		{
-			return false;
-		}
-		
-		if(value.byteValue( ) < annotation.min( ) || value.byteValue( ) > annotation.max( ))
-		{
-			return false;
+			return verify( value.longValue( ), annotation );
 		}
 		
-		if(value.shortValue( ) < annotation.min( ) || value.shortValue( ) > annotation.max( ))
-		{
-			return false;
-		}
-		
-		return true;
+		return verify( value.doubleValue( ), annotation );
+	}
+
+	@Override
+	public boolean verify( int value, Interval annotation )
+	{
+		return !(value < annotation.min( ) || value > annotation.max( ));
+	}
+
+	@Override
+	public boolean verify( long value, Interval annotation )
+	{
+		return Bounds.atLeast( value, annotation.min( ) ) && Bounds.atMost( value, annotation.max( ) );
+	}
+
+	@Override
+	public boolean verify( double value, Interval annotation )
+	{
+		return !(value < annotation.min( ) || value > annotation.max( ));
 	}
 
 }
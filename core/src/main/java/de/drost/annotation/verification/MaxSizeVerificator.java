@@ -19,13 +19,11 @@
  */
 package de.drost.annotation.verification;
 
-import java.lang.reflect.Array;
-import java.util.Collection;
-
+import de.drost.annotation.SizeVerificator;
 import de.drost.annotation.Verificator;
 import de.drost.annotation.prove.MaxSize;
 
-public class MaxSizeVerificator implements Verificator<Object, MaxSize>
+public class MaxSizeVerificator implements Verificator<Object, MaxSize>, SizeVerificator<MaxSize>
 {
 
 	@Override
@@ -34,28 +32,25 @@ public class MaxSizeVerificator implements Verificator<Object, MaxSize>
 		if(value == null)
 			return false;
 		
-		if(value instanceof Collection)
-		{
-			if(( (Collection<?>) value ).size( ) > annotation.value( ))
-			{
-				return false;
-			}
-		}
-		else if(value instanceof Array)
-		{
-			if(Array.getLength( value ) > annotation.value( ))
-			{
-				return false;
-			}
-		}
-		else if(value instanceof String)
-		{
-			if(( (String) value ).length( ) > annotation.value( ))
-			{
-				return false;
-			}
-		}
+		long size = Sizes.of( value, limit( annotation ) );
+		
+		// Values without a size are not restricted
+		if(size < 0)
+			return true;
 		
-		return true;
+		return verify( size, annotation );
+	}
+
+	@Override
+	public boolean verify( long size, MaxSize annotation )
+	{
+		return size <= annotation.value( );
+	}
+
+	@Override
+	public long limit( MaxSize annotation )
+	{
+		// One more element than allowed decides the violation
+		return ( annotation.value( ) < Long.MAX_VALUE ) ? annotation.value( ) + 1 : Long.MAX_VALUE;
 	}
 }
@@ -19,13 +19,11 @@
  */
 package de.drost.annotation.verification;
 
-import java.lang.reflect.Array;
-import java.util.Collection;
-
+import de.drost.annotation.SizeVerificator;
 import de.drost.annotation.Verificator;
 import de.drost.annotation.prove.MinSize;
 
-public class MinSizeVerificator implements Verificator<Object, MinSize>
+public class MinSizeVerificator implements Verificator<Object, MinSize>, SizeVerificator<MinSize>
 {
 
 	@Override
@@ -34,28 +32,24 @@ public class MinSizeVerificator implements Verificator<Object, MinSize>
 		if(value == null)
 			return false;
 		
-		if(value instanceof Collection)
-		{
-			if(( (Collection<?>) value ).size( ) < annotation.value( ))
-			{
-				return false;
-			}
-		}
-		else if(value instanceof Array)
-		{
-			if(Array.getLength( value ) < annotation.value( ))
-			{
-				return false;
-			}
-		}
-		else if(value instanceof String)
-		{
-			if(( (String) value ).length( ) < annotation.value( ))
-			{
-				return false;
-			}
-		}
+		long size = Sizes.of( value, limit( annotation ) );
+		
+		// Values without a size are not restricted
+		if(size < 0)
+			return true;
 		
-		return true;
+		return verify( size, annotation );
+	}
+
+	@Override
+	public boolean verify( long size, MinSize annotation )
+	{
+		return size >= annotation.value( );
+	}
+
+	@Override
+	public long limit( MinSize annotation )
+	{
+		return annotation.value( );
 	}
 }
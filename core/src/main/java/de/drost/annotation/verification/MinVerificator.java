@@ -19,10 +19,14 @@
  */
 package de.drost.annotation.verification;
 
+import de.drost.annotation.DoubleVerificator;
+import de.drost.annotation.IntVerificator;
+import de.drost.annotation.LongVerificator;
 import de.drost.annotation.Verificator;
 import de.drost.annotation.prove.Min;
 
-public class MinVerificator implements Verificator<Number, Min>
+public class MinVerificator implements Verificator<Number, Min>, IntVerificator<Min>, LongVerificator<Min>,
+		DoubleVerificator<Min>
 {
 
 	@Override
@@ -31,37 +35,31 @@ public class MinVerificator implements Verificator<Number, Min>
 		if(value == null)
 			return false;
 		
-		if(value.doubleValue( ) < annotation.value( ))
+		// Compares the value within its own domain
+		if(Bounds.isIntegral( value ))
 		{
-			return false;
-		}
-		
-		if(value.floatValue( ) < annotation.value( ))
-		{
-			return false;
-		}
-		
-		if(value.intValue( ) < annotation.value( ))
-		{
-			return false;
-		}
-		
-		if(value.longValue( ) < annotation.value( ))
-		{
-			return false;
-		}
-		
-		if(value.byteValue( ) < annotation.value( ))
-		{
-			return false;
+			return verify( value.longValue( ), annotation );
 		}
 		
-		if(value.shortValue( ) < annotation.value( ))
-		{
-			return false;
-		}
-		
-		return true;
+		return verify( value.doubleValue( ), annotation );
+	}
+
+	@Override
+	public boolean verify( int value, Min annotation )
+	{
+		return !(value < annotation.value( ));
+	}
+
+	@Override
+	public boolean verify( long value, Min annotation )
+	{
+		return Bounds.atLeast( value, annotation.value( ) );
+	}
+
+	@Override
+	public boolean verify( double value, Min annotation )
+	{
+		return !(value < annotation.value( ));
 	}
 
 }
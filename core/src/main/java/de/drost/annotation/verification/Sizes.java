@@ -0,0 +1,152 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.verification;
+
+import java.lang.reflect.Array;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Measures the size of values up to a limit. The size of collections and
+ * maps is only asked for if it is known to be constant time, like for
+ * {@link ArrayList} or {@link HashMap}. All other collections, like views,
+ * the concurrent queues or lazily loaded collections, and plain
+ * {@link Iterable}s are probed by iterating at most {@code limit} elements,
+ * so a size bound is decided without traversing the whole collection.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class Sizes
+{
+	/**
+	 * The classes whose {@code size()} is known to be constant time. Only the
+	 * exact classes are listed, since subclasses and views, like the sub maps
+	 * of a {@link TreeMap}, may count their elements.
+	 */
+	private static final Set<Class<?>> CONSTANT_SIZE = new HashSet<Class<?>>( Arrays.<Class<?>> asList( ArrayList.class,
+			HashMap.class, HashSet.class, LinkedHashMap.class, LinkedHashSet.class, ArrayDeque.class, LinkedList.class,
+			TreeMap.class, TreeSet.class, EnumMap.class, IdentityHashMap.class ) );
+
+	private Sizes( )
+	{
+
+	}
+
+	/**
+	 * Returns the size of the specified value by its runtime type.
+	 * 
+	 * @param value
+	 *            A non-null value.
+	 * @param limit
+	 *            The size up to which the value has to be measured.
+	 * @return The size, which is {@code limit} for larger iterated values,
+	 *         or {@code -1} if the value has no size.
+	 */
+	public static long of( Object value, long limit )
+	{
+		if( value instanceof CharSequence )
+			return ( (CharSequence) value ).length( );
+		if( value instanceof Collection )
+			return of( (Collection<?>) value, limit );
+		if( value instanceof Map )
+			return of( (Map<?, ?>) value, limit );
+		if( value instanceof Iterable )
+			return count( ( (Iterable<?>) value ).iterator( ), limit );
+		if( value.getClass( ).isArray( ) )
+			return Array.getLength( value );
+		return -1;
+	}
+
+	/**
+	 * Returns the size of the specified collection.
+	 * 
+	 * @param collection
+	 *            A non-null collection.
+	 * @param limit
+	 *            The size up to which the collection has to be measured.
+	 * @return The size, which is {@code limit} for larger iterated
+	 *         collections.
+	 */
+	public static long of( Collection<?> collection, long limit )
+	{
+		if( hasConstantSize( collection.getClass( ) ) )
+			return collection.size( );
+		return count( collection.iterator( ), limit );
+	}
+
+	/**
+	 * Returns the size of the specified map.
+	 * 
+	 * @param map
+	 *            A non-null map.
+	 * @param limit
+	 *            The size up to which the map has to be measured.
+	 * @return The size, which is {@code limit} for larger iterated maps.
+	 */
+	public static long of( Map<?, ?> map, long limit )
+	{
+		if( hasConstantSize( map.getClass( ) ) )
+			return map.size( );
+		return count( map.keySet( ).iterator( ), limit );
+	}
+
+	/**
+	 * Counts the elements of the specified iterator, but at most
+	 * {@code limit}.
+	 */
+	public static long count( Iterator<?> iterator, long limit )
+	{
+		long count = 0;
+		while( count < limit && iterator.hasNext( ) )
+		{
+			iterator.next( );
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Checks whether the {@code size()} of the instances of the specified
+	 * class is known to be constant time.
+	 * 
+	 * @param type
+	 *            A collection or map type.
+	 * @return {@code true} if the size does not have to be probed.
+	 */
+	public static boolean hasConstantSize( Class<?> type )
+	{
+		return CONSTANT_SIZE.contains( type );
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * The verification annotations and their reflective evaluation. Faster
+ * backends are plugged in as {@link de.drost.annotation.ClassVerificatorFactory}
+ * services, further annotations as
+ * {@link de.drost.annotation.ConstraintProvider} services.
+ * <p>
+ * The packages of verified classes have to be open to this module, like
+ * {@code opens com.example.model to de.drost.annotation;}.
+ * 
+ * @author kimschorat
+ *
+ */
+module de.drost.annotation
+{
+	exports de.drost.annotation;
+	exports de.drost.annotation.prove;
+	exports de.drost.annotation.support;
+	exports de.drost.annotation.verification;
+
+	uses de.drost.annotation.ClassVerificatorFactory;
+	uses de.drost.annotation.ConstraintProvider;
+}
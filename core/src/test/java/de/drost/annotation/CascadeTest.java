@@ -0,0 +1,178 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class CascadeTest
+{
+	static class Price
+	{
+		@Min(0)
+		long cents;
+
+		Price( long cents )
+		{
+			this.cents = cents;
+		}
+	}
+
+	static class Item
+	{
+		@NotNull
+		String name = "item";
+
+		@Cascade
+		Price price;
+
+		Item( long cents )
+		{
+			this.price = new Price( cents );
+		}
+	}
+
+	static class Order
+	{
+		@Cascade
+		List<Item> items = new ArrayList<Item>( );
+
+		@Cascade
+		Item[] gifts = new Item[0];
+
+		@Cascade
+		Map<String, Item> byName = new HashMap<String, Item>( );
+
+		@Cascade
+		Order parent;
+	}
+
+	static class Link
+	{
+		@Min(0)
+		int value;
+
+		@Cascade
+		Link next;
+	}
+
+	@Test
+	public void testPropertyPaths() throws InstantiationException, IllegalAccessException
+	{
+		Order order = new Order( );
+		for( int i = 0; i < 5; i++ )
+			order.items.add( new Item( i ) );
+
+		Assert.assertTrue( AVerification.verifyCascading( order ).passedAll( ) );
+		Assert.assertTrue( AVerification.verify( order ).passedAll( ) );
+
+		order.items.get( 3 ).price.cents = -1;
+		order.gifts = new Item[] { new Item( 0 ), null, new Item( 1 ) };
+		order.gifts[2].name = null;
+		order.byName.put( "key", new Item( -5 ) );
+
+		Result result = AVerification.verifyCascading( order );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertEquals( "[items[3].price.cents, gifts[2].name, byName[key].price.cents]",
+				ViolationPaths.of( result ).toString( ) );
+
+		// Only the top object is verified without cascading
+		Assert.assertTrue( AVerification.verify( order ).passedAll( ) );
+	}
+
+	/**
+	 * A bean that is iterable, but has constraints of its own.
+	 */
+	static class Tags implements Iterable<Item>
+	{
+		@NotNull
+		String id = "tags";
+
+		@Cascade
+		Tags next;
+
+		List<Item> items = new ArrayList<Item>( );
+
+		@Override
+		public Iterator<Item> iterator( )
+		{
+			return items.iterator( );
+		}
+	}
+
+	@Test
+	public void testIterableBean() throws InstantiationException, IllegalAccessException
+	{
+		Tags tags = new Tags( );
+		tags.id = null;
+		Assert.assertFalse( AVerification.verify( tags ).passedAll( ) );
+		Assert.assertEquals( "[id]", ViolationPaths.of( AVerification.verifyCascading( tags ) ).toString( ) );
+
+		// Only cascaded containers are descended into, after their own fields
+		tags.id = "root";
+		tags.items.add( new Item( -1 ) );
+		tags.next = new Tags( );
+		tags.next.id = null;
+		tags.next.items.add( new Item( -2 ) );
+		Assert.assertEquals( "[next.id, next[0].price.cents]",
+				ViolationPaths.of( AVerification.verifyCascading( tags ) ).toString( ) );
+	}
+
+	@Test
+	public void testCycles() throws InstantiationException, IllegalAccessException
+	{
+		Order order = new Order( );
+		order.parent = order;
+		Item item = new Item( -1 );
+		order.items.add( item );
+		order.items.add( item );
+
+		Result result = AVerification.verifyCascading( order );
+		Assert.assertEquals( "[items[0].price.cents]", ViolationPaths.of( result ).toString( ) );
+	}
+
+	@Test
+	public void testDeepGraph() throws InstantiationException, IllegalAccessException
+	{
+		Link head = new Link( );
+		Link tail = head;
+		for( int i = 0; i < 200000; i++ )
+		{
+			tail.next = new Link( );
+			tail = tail.next;
+		}
+
+		Assert.assertTrue( AVerification.verifyCascading( head ).passedAll( ) );
+
+		tail.value = -1;
+		Result result = AVerification.verifyCascading( head );
+		Assert.assertFalse( result.passedAll( ) );
+	}
+}
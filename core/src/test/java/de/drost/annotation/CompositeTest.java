@@ -0,0 +1,187 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.VerificationPlan.Property;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+
+public class CompositeTest
+{
+	@NotNull
+	@MinSize(1)
+	@MaxSize(8)
+	@Retention( RetentionPolicy.RUNTIME )
+	@Target( { ElementType.FIELD, ElementType.ANNOTATION_TYPE } )
+	public @interface Name
+	{
+
+	}
+
+	@Name
+	@MaxSize(4)
+	@Retention( RetentionPolicy.RUNTIME )
+	@Target( ElementType.FIELD )
+	public @interface ShortName
+	{
+
+	}
+
+	/**
+	 * Counts the elements it has been iterated over.
+	 */
+	static final class Counted implements Iterable<Integer>
+	{
+		final int	size;
+		int			iterated;
+
+		Counted( int size )
+		{
+			this.size = size;
+		}
+
+		@Override
+		public Iterator<Integer> iterator( )
+		{
+			return new Iterator<Integer>( )
+			{
+				int i;
+
+				@Override
+				public boolean hasNext( )
+				{
+					return i < size;
+				}
+
+				@Override
+				public Integer next( )
+				{
+					if( i >= size )
+						throw new NoSuchElementException( );
+					iterated++;
+					return i++;
+				}
+			};
+		}
+	}
+
+	static final class Sample
+	{
+		@Name
+		String name = "name";
+
+		@ShortName
+		String code = "abc";
+
+		@Min(0)
+		@Max(100)
+		@Interval(min = -10, max = 50)
+		int percent = 50;
+
+		@Min(Long.MIN_VALUE)
+		@Max(0x1p63)
+		long unbounded = Long.MAX_VALUE;
+
+		@Min(0)
+		@Max(1)
+		double ratio = 0.5;
+
+		@MinSize(2)
+		@MaxSize(3)
+		Counted counted = new Counted( 10 );
+	}
+
+	@Test
+	public void testComposedAnnotations() throws InstantiationException, IllegalAccessException
+	{
+		Sample sample = new Sample( );
+		sample.counted = new Counted( 2 );
+
+		Result result = AVerification.verify( sample );
+		Assert.assertTrue( result.toString( ), result.passedAll( ) );
+		Assert.assertEquals( 3, VerificationPlan.of( Sample.class ).properties[0].constraints.length );
+		Assert.assertEquals( 4, VerificationPlan.of( Sample.class ).properties[1].constraints.length );
+
+		sample.name = "";
+		sample.code = "abcde";
+		Assert.assertEquals( 2, AVerification.verify( sample ).getViolations( ).size( ) );
+
+		// Null fails the size constraints as well
+		sample.name = null;
+		Assert.assertEquals( 4, AVerification.verify( sample ).getViolations( ).size( ) );
+	}
+
+	@Test
+	public void testFusedRange() throws InstantiationException, IllegalAccessException
+	{
+		Property percent = VerificationPlan.of( Sample.class ).properties[2];
+		Assert.assertEquals( 3, percent.range.constraints.length );
+		Assert.assertEquals( 0, percent.checks.length );
+
+		Sample sample = new Sample( );
+		sample.counted = new Counted( 3 );
+		Assert.assertTrue( AVerification.verify( sample ).passedAll( ) );
+
+		sample.percent = 51;
+		Assert.assertEquals( 1, AVerification.verify( sample ).getViolations( ).size( ) );
+
+		sample.percent = -11;
+		Assert.assertEquals( 2, AVerification.verify( sample ).getViolations( ).size( ) );
+
+		sample.percent = 0;
+		sample.unbounded = Long.MIN_VALUE;
+		sample.ratio = Double.NaN;
+		Assert.assertTrue( AVerification.verify( sample ).passedAll( ) );
+
+		sample.ratio = 1.5;
+		Assert.assertEquals( 1, AVerification.verify( sample ).getViolations( ).size( ) );
+	}
+
+	@Test
+	public void testSizeMeasuredOnce() throws InstantiationException, IllegalAccessException
+	{
+		Property counted = VerificationPlan.of( Sample.class ).properties[5];
+		Assert.assertEquals( 2, counted.sizes.length );
+		Assert.assertEquals( 4, counted.sizeLimit );
+
+		Sample sample = new Sample( );
+		Result result = AVerification.verifyField( sample, VerificationPlan.of( Sample.class ).properties[5].field );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertEquals( 1, result.getViolations( ).size( ) );
+
+		// Probed once up to the larger limit
+		Assert.assertEquals( 4, sample.counted.iterated );
+	}
+}
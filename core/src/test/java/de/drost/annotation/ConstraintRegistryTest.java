@@ -0,0 +1,104 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.support.Getter;
+
+public class ConstraintRegistryTest
+{
+	@AnnotationVerification( verifiedBy = EvenVerificator.class )
+	@Retention( RetentionPolicy.RUNTIME )
+	@Target( ElementType.FIELD )
+	public @interface Even
+	{
+
+	}
+
+	@Retention( RetentionPolicy.RUNTIME )
+	@Target( ElementType.FIELD )
+	public @interface Lowercase
+	{
+
+	}
+
+	public static class EvenVerificator implements Verificator<Number, Even>
+	{
+		@Override
+		public boolean verify( Number value, Even annotation )
+		{
+			return value != null && value.longValue( ) % 2 == 0;
+		}
+	}
+
+	public static class LowercaseVerificator implements Verificator<String, Lowercase>
+	{
+		@Override
+		public boolean verify( String value, Lowercase annotation )
+		{
+			return value != null && value.equals( value.toLowerCase( ) );
+		}
+	}
+
+	static final class Sample
+	{
+		@Even
+		@Min(0)
+		int count = 2;
+
+		@Lowercase
+		String name = "abc";
+	}
+
+	@Test
+	public void testMetaAnnotated() throws InstantiationException, IllegalAccessException
+	{
+		Assert.assertTrue( ConstraintRegistry.isConstraint( Even.class ) );
+		Assert.assertTrue( ConstraintRegistry.isConstraint( Min.class ) );
+		Assert.assertFalse( ConstraintRegistry.isConstraint( Getter.class ) );
+		Assert.assertEquals( EvenVerificator.class, ConstraintRegistry.verificator( Even.class ) );
+	}
+
+	@Test
+	public void testRegistered() throws InstantiationException, IllegalAccessException
+	{
+		ConstraintRegistry.register( Lowercase.class, LowercaseVerificator.class );
+		Assert.assertTrue( ConstraintRegistry.isConstraint( Lowercase.class ) );
+
+		Sample sample = new Sample( );
+		Assert.assertEquals( 3, AVerification.verify( sample ).getEvaluations( ).size( ) );
+		Assert.assertTrue( AVerification.isValid( sample ) );
+
+		sample.count = 3;
+		Assert.assertFalse( AVerification.isValid( sample ) );
+
+		sample.count = 4;
+		sample.name = "ABC";
+		Assert.assertFalse( AVerification.isValid( sample ) );
+	}
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.DecimalMax;
+import de.drost.annotation.prove.DecimalMin;
+import de.drost.annotation.verification.DecimalBound;
+import de.drost.annotation.verification.DecimalMaxVerificator;
+
+public class DecimalTest
+{
+	static final class Sample
+	{
+		// Rounded to 2^53 as double
+		@DecimalMax("9007199254740993")
+		long id = 9007199254740993L;
+
+		@DecimalMin(value = "0", inclusive = false)
+		@DecimalMax("999.99")
+		BigDecimal amount = new BigDecimal( "0.01" );
+
+		@DecimalMax("0.1")
+		double ratio = 0.1;
+
+		@DecimalMax("0.1")
+		float single = 0.1f;
+
+		@DecimalMin("-18446744073709551616")
+		BigInteger big = BigInteger.ZERO;
+
+		@DecimalMin("1.5")
+		Integer boxed = 2;
+	}
+
+	@Test
+	public void testExactBounds() throws InstantiationException, IllegalAccessException
+	{
+		Sample sample = new Sample( );
+		Result result = AVerification.verify( sample );
+		Assert.assertTrue( result.toString( ), result.passedAll( ) );
+
+		sample.id++;
+		Assert.assertEquals( 1, AVerification.verify( sample ).getViolations( ).size( ) );
+		sample.id = Long.MIN_VALUE;
+
+		sample.amount = BigDecimal.ZERO;
+		Assert.assertEquals( 1, AVerification.verify( sample ).getViolations( ).size( ) );
+		sample.amount = new BigDecimal( "999.990" );
+		Assert.assertTrue( AVerification.isValid( sample ) );
+		sample.amount = new BigDecimal( "999.991" );
+		Assert.assertEquals( 1, AVerification.verify( sample ).getViolations( ).size( ) );
+		sample.amount = null;
+		Assert.assertEquals( 2, AVerification.verify( sample ).getViolations( ).size( ) );
+		sample.amount = BigDecimal.ONE;
+
+		sample.ratio = Math.nextUp( 0.1 );
+		sample.single = Math.nextUp( 0.1f );
+		Assert.assertEquals( 2, AVerification.verify( sample ).getViolations( ).size( ) );
+		sample.ratio = Double.NaN;
+		sample.single = Float.NEGATIVE_INFINITY;
+		Assert.assertTrue( AVerification.isValid( sample ) );
+
+		sample.big = BigInteger.valueOf( 2 ).pow( 64 ).negate( ).subtract( BigInteger.ONE );
+		sample.boxed = 1;
+		Assert.assertEquals( 2, AVerification.verify( sample ).getViolations( ).size( ) );
+	}
+
+	@Test
+	public void testIntegralRounding()
+	{
+		DecimalMin min = bound( "minimum" ).getAnnotation( DecimalMin.class );
+		DecimalBound exclusive = DecimalBound.of( min, long.class );
+		Assert.assertFalse( exclusive.test( -1L ) );
+		Assert.assertTrue( exclusive.test( 0L ) );
+
+		// Closer to 3 than to any other double
+		DecimalMax max = bound( "maximum" ).getAnnotation( DecimalMax.class );
+		DecimalBound below = DecimalBound.of( max, double.class );
+		Assert.assertTrue( below.test( 2L ) );
+		Assert.assertFalse( below.test( 3L ) );
+		Assert.assertFalse( below.test( 3.0 ) );
+		Assert.assertTrue( below.test( Math.nextDown( 3.0 ) ) );
+
+		DecimalBound huge = DecimalBound.of( bound( "huge" ).getAnnotation( DecimalMax.class ), long.class );
+		Assert.assertTrue( huge.test( Long.MAX_VALUE ) );
+		Assert.assertTrue( huge.test( Double.MAX_VALUE ) );
+		Assert.assertFalse( huge.test( Double.POSITIVE_INFINITY ) );
+
+		// The verificator parses the bound for each call
+		Assert.assertFalse( new DecimalMaxVerificator( ).verify( 3, max ) );
+		Assert.assertTrue( new DecimalMaxVerificator( ).verify( new BigDecimal( "2.99" ), max ) );
+	}
+
+	@DecimalMin(value = "-0.5", inclusive = false)
+	static int		minimum;
+
+	@DecimalMax("2.999999999999999999999999")
+	static int		maximum;
+
+	@DecimalMax("1e400")
+	static long		huge;
+
+	private static java.lang.reflect.Field bound( String name )
+	{
+		try
+		{
+			return DecimalTest.class.getDeclaredField( name );
+		}
+		catch( NoSuchFieldException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+}
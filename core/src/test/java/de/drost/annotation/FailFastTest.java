@@ -0,0 +1,95 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class FailFastTest
+{
+	@MaxSize(3)
+	List<String> names = new ArrayList<String>( );
+
+	@Max(10)
+	Integer boxedValue = 0;
+
+	@Min(0)
+	int intValue = 0;
+
+	@NotNull
+	String string = "";
+
+	@Test
+	public void testCheapConstraintsFirst() throws InstantiationException, IllegalAccessException
+	{
+		Constraint[] failFast = VerificationPlan.of( FailFastTest.class ).failFast;
+
+		Assert.assertEquals( 4, failFast.length );
+		Assert.assertEquals( "string", failFast[0].getField( ).getName( ) );
+		Assert.assertEquals( "intValue", failFast[1].getField( ).getName( ) );
+		Assert.assertEquals( "boxedValue", failFast[2].getField( ).getName( ) );
+		Assert.assertEquals( "names", failFast[3].getField( ).getName( ) );
+	}
+
+	@Test
+	public void testMatchesVerify() throws InstantiationException, IllegalAccessException
+	{
+		Assert.assertTrue( AVerification.isValid( this ) );
+
+		names.add( "a" );
+		names.add( "b" );
+		names.add( "c" );
+		names.add( "d" );
+		Assert.assertFalse( AVerification.isValid( this ) );
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+
+		names.clear( );
+		boxedValue = null;
+		Assert.assertFalse( AVerification.isValid( this ) );
+
+		boxedValue = 10;
+		string = null;
+		Assert.assertFalse( AVerification.isValid( this ) );
+
+		string = "";
+		intValue = -1;
+		Assert.assertFalse( AVerification.isValid( this ) );
+	}
+
+	@Test
+	public void testReflectiveEvaluation() throws InstantiationException, IllegalAccessException
+	{
+		for( Constraint c : VerificationPlan.of( FailFastTest.class ).failFast )
+		{
+			Assert.assertTrue( c.toString( ), c.evaluate( this ) );
+		}
+
+		intValue = -1;
+		Assert.assertFalse( VerificationPlan.of( FailFastTest.class ).failFast[1].evaluate( this ) );
+	}
+}
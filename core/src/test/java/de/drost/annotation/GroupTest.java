@@ -0,0 +1,97 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class GroupTest
+{
+	public interface Create
+	{
+	}
+
+	public interface Strict extends Default
+	{
+	}
+
+	@NotNull
+	String name = "name";
+
+	@NotNull(groups = Create.class)
+	Long id = null;
+
+	@Min(0)
+	@Max(value = 10, groups = Strict.class)
+	int value = 20;
+
+	@MaxSize(value = 2, groups = { Create.class, Strict.class })
+	String code = "abc";
+
+	@Test
+	public void testDefaultGroup() throws InstantiationException, IllegalAccessException
+	{
+		Result result = AVerification.verify( this );
+		Assert.assertTrue( result.passedAll( ) );
+		Assert.assertEquals( 2, result.getEvaluations( ).size( ) );
+		Assert.assertTrue( AVerification.isValid( this ) );
+		Assert.assertTrue( AVerification.isValid( this, Default.class ) );
+	}
+
+	@Test
+	public void testSingleGroup() throws InstantiationException, IllegalAccessException
+	{
+		Result result = AVerification.verify( this, Create.class );
+		Assert.assertEquals( 2, result.getEvaluations( ).size( ) );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertFalse( AVerification.isValid( this, Create.class ) );
+
+		id = 1L;
+		code = "ab";
+		Assert.assertTrue( AVerification.isValid( this, Create.class ) );
+	}
+
+	@Test
+	public void testInheritedGroup() throws InstantiationException, IllegalAccessException
+	{
+		// Strict also covers the default group
+		Result result = AVerification.verify( this, Strict.class );
+		Assert.assertEquals( 4, result.getEvaluations( ).size( ) );
+		Assert.assertFalse( result.passedAll( ) );
+
+		value = 10;
+		code = "";
+		Assert.assertTrue( AVerification.isValid( this, Strict.class ) );
+	}
+
+	@Test
+	public void testCombinedGroups() throws InstantiationException, IllegalAccessException
+	{
+		Assert.assertEquals( 5, AVerification.verify( this, Create.class, Strict.class ).getEvaluations( ).size( ) );
+		Assert.assertSame( VerificationPlan.of( getClass( ), Create.class, Strict.class ),
+				VerificationPlan.of( getClass( ), Strict.class, Create.class ) );
+	}
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.NotNull;
+import de.drost.annotation.support.Getter;
+import de.drost.annotation.support.Setter;
+
+public class GuardedSetterTest
+{
+	@Interval(min = 0, max = 120)
+	@Setter(name = "setAge")
+	int age = 30;
+
+	@NotNull
+	@MaxSize(4)
+	String name = "anna";
+
+	@MaxSize(3)
+	@Getter(name = "getTrimmed")
+	String padded = "abc";
+
+	public void setAge( int age ) throws Exception
+	{
+		AVerification.set( this, "age", age );
+	}
+
+	String getTrimmed( )
+	{
+		return padded.trim( );
+	}
+
+	@Test
+	public void testValidValues() throws Exception
+	{
+		setAge( 120 );
+		Assert.assertEquals( 120, age );
+
+		AVerification.set( this, "name", "bob" );
+		Assert.assertEquals( "bob", name );
+	}
+
+	@Test
+	public void testRejectedValues() throws Exception
+	{
+		try
+		{
+			setAge( 121 );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( "age", e.getField( ) );
+			Assert.assertEquals( 121, e.getValue( ) );
+			Assert.assertEquals( Interval.class, e.getViolated( ).get( 0 ) );
+			Assert.assertEquals( "'age' (121) violates @Interval", e.getMessage( ) );
+		}
+		Assert.assertEquals( 30, age );
+
+		try
+		{
+			AVerification.set( this, "name", null );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( 2, e.getViolated( ).size( ) );
+		}
+
+		// Strings are left out of the message
+		try
+		{
+			AVerification.set( this, "name", "secret" );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( "secret", e.getValue( ) );
+			Assert.assertEquals( "'name' violates @MaxSize", e.getMessage( ) );
+		}
+		Assert.assertEquals( "anna", name );
+	}
+
+	@Test
+	public void testGetter() throws Exception
+	{
+		padded = "  abc  ";
+		Assert.assertTrue( AVerification.verify( this ).passedAll( ) );
+
+		padded = " abcd ";
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+	}
+
+	@Test
+	public void testGetterFieldIsNotAssigned() throws Exception
+	{
+		padded = " abc ";
+		Assert.assertTrue( AVerification.verify( this ).passedAll( ) );
+
+		// The raw value would violate @MaxSize(3), the trimmed one does not
+		try
+		{
+			AVerification.set( this, "padded", " abc " );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.fail( e.toString( ) );
+		}
+		catch( IllegalArgumentException e )
+		{
+			Assert.assertEquals( " abc ", padded );
+		}
+	}
+}
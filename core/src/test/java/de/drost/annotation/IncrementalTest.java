@@ -0,0 +1,160 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Evaluation;
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class IncrementalTest
+{
+	@Min(0)
+	@Max(10)
+	int value = 5;
+
+	@NotNull
+	String name = "name";
+
+	@MaxSize(2)
+	List<String> items = new ArrayList<String>( );
+
+	@Test
+	public void testChangedFields() throws InstantiationException, IllegalAccessException
+	{
+		IncrementalVerification verification = new IncrementalVerification( this );
+		Assert.assertTrue( verification.verify( ).passedAll( ) );
+
+		value = 11;
+		Assert.assertFalse( verification.verify( ).passedAll( ) );
+
+		value = 10;
+		name = null;
+		Result result = verification.verify( );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertEquals( 4, result.getEvaluations( ).size( ) );
+
+		name = "other";
+		Assert.assertTrue( verification.verify( ).passedAll( ) );
+
+		// Mutated in place, without a new snapshot
+		items.add( "a" );
+		items.add( "b" );
+		items.add( "c" );
+		Assert.assertFalse( verification.verify( ).passedAll( ) );
+	}
+
+	@Test
+	public void testMarkedFields() throws InstantiationException, IllegalAccessException
+	{
+		IncrementalVerification verification = new IncrementalVerification( this );
+
+		value = -1;
+		name = null;
+		verification.markChanged( "value" );
+
+		// The unmarked field keeps its earlier outcome
+		Result result = verification.verifyChanged( );
+		Assert.assertFalse( result.passedAll( ) );
+		for( Evaluation e : result.getEvaluations( ) )
+		{
+			Assert.assertEquals( e.toString( ), !( e.getAnnotation( ) instanceof Min ), e.passed( ) );
+		}
+
+		value = 1;
+		verification.markChanged( "value" );
+		Assert.assertTrue( verification.verifyChanged( ).passedAll( ) );
+
+		verification.markChanged( "name" );
+		Assert.assertFalse( verification.verifyChanged( ).passedAll( ) );
+	}
+
+	static class Counter
+	{
+		@Max(5)
+		Number count = new AtomicInteger( 1 );
+	}
+
+	@Test
+	public void testMutableNumber() throws InstantiationException, IllegalAccessException
+	{
+		Counter counter = new Counter( );
+		IncrementalVerification verification = new IncrementalVerification( counter );
+		Assert.assertTrue( verification.verify( ).passedAll( ) );
+
+		// Changed in place, so it is evaluated again
+		( (AtomicInteger) counter.count ).set( 100 );
+		Assert.assertFalse( verification.verify( ).passedAll( ) );
+	}
+
+	static class Base
+	{
+		@Min(0)
+		int id;
+	}
+
+	static class Shadowing extends Base
+	{
+		@Max(10)
+		int id;
+	}
+
+	@Test
+	public void testShadowedField() throws InstantiationException, IllegalAccessException
+	{
+		Shadowing shadowing = new Shadowing( );
+		IncrementalVerification verification = new IncrementalVerification( shadowing );
+
+		try
+		{
+			verification.markChanged( "id" );
+			Assert.fail( );
+		}
+		catch( IllegalArgumentException e )
+		{
+			// Ambiguous
+		}
+
+		( (Base) shadowing ).id = -1;
+		shadowing.id = 11;
+		verification.markChanged( Base.class.getName( ) + ".id" );
+		Result result = verification.verifyChanged( );
+		Assert.assertEquals( 1, result.getViolations( ).size( ) );
+		Assert.assertTrue( result.getViolations( ).get( 0 ).getConstraint( ) instanceof Min );
+
+		verification.markChanged( Shadowing.class.getName( ) + ".id" );
+		Assert.assertEquals( 2, verification.verifyChanged( ).getViolations( ).size( ) );
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownField() throws InstantiationException, IllegalAccessException
+	{
+		new IncrementalVerification( this ).markChanged( "unknown" );
+	}
+}
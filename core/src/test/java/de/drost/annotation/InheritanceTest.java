@@ -0,0 +1,99 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class InheritanceTest
+{
+	static abstract class Entity
+	{
+		@NotNull
+		private Long	id			= 1L;
+
+		@Min(0)
+		long			created		= 0;
+	}
+
+	static class Named extends Entity
+	{
+		@NotNull
+		@MaxSize(4)
+		String name = "name";
+	}
+
+	static final class Item extends Named
+	{
+		@Min(1)
+		int count = 1;
+	}
+
+	@Test
+	public void testInheritedFields() throws Exception
+	{
+		Item item = new Item( );
+
+		AVerification.Result result = AVerification.verify( item );
+		Assert.assertTrue( result.passedAll( ) );
+		Assert.assertEquals( 5, result.getEvaluations( ).size( ) );
+
+		( (Entity) item ).id = null;
+		Assert.assertFalse( AVerification.verify( item ).passedAll( ) );
+		Assert.assertFalse( AVerification.isValid( item ) );
+		Assert.assertFalse( AVerification.verifyField( item, "id" ).passedAll( ) );
+
+		( (Entity) item ).id = 2L;
+		item.created = -1;
+		Assert.assertFalse( AVerification.isValid( item ) );
+	}
+
+	@Test
+	public void testFlattenedPlan() throws Exception
+	{
+		VerificationPlan plan = VerificationPlan.of( Item.class );
+		Assert.assertEquals( 4, plan.properties.length );
+		Assert.assertEquals( "id", plan.properties[0].field.getName( ) );
+		Assert.assertEquals( "count", plan.properties[3].field.getName( ) );
+		Assert.assertSame( plan, VerificationPlan.of( Item.class ) );
+	}
+
+	@Test
+	public void testInheritedSetter() throws Exception
+	{
+		Item item = new Item( );
+		AVerification.set( item, "name", "abc" );
+		Assert.assertEquals( "abc", item.name );
+
+		try
+		{
+			AVerification.set( item, "id", null );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( NotNull.class, e.getViolated( ).get( 0 ) );
+		}
+	}
+}
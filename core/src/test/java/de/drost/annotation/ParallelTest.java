@@ -0,0 +1,87 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Min;
+
+public class ParallelTest
+{
+	static class Record
+	{
+		@Min(0)
+		int value;
+
+		Record( int value )
+		{
+			this.value = value;
+		}
+	}
+
+	@Test
+	public void testSmallCollection() throws InstantiationException, IllegalAccessException
+	{
+		List<Record> records = new ArrayList<Record>( );
+		records.add( new Record( 0 ) );
+		records.add( null );
+		records.add( new Record( -1 ) );
+
+		Result result = AVerification.verifyAll( records );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertEquals( "[[2].value]", ViolationPaths.of( result ).toString( ) );
+	}
+
+	@Test
+	public void testOrderIsKept() throws InstantiationException, IllegalAccessException
+	{
+		List<Record> records = new ArrayList<Record>( );
+		for( int i = 0; i < 100000; i++ )
+		{
+			records.add( new Record( ( i % 25000 == 7 ) ? -1 : i ) );
+		}
+
+		ForkJoinPool pool = new ForkJoinPool( 4 );
+		try
+		{
+			Result result = AVerification.verifyAll( records, pool );
+			Assert.assertFalse( result.passedAll( ) );
+			Assert.assertEquals( 100000, result.getEvaluations( ).size( ) );
+			Assert.assertEquals( "[[7].value, [25007].value, [50007].value, [75007].value]",
+					ViolationPaths.of( result ).toString( ) );
+		}
+		finally
+		{
+			pool.shutdown( );
+		}
+
+		records.get( 7 ).value = 0;
+		records.get( 25007 ).value = 0;
+		records.get( 50007 ).value = 0;
+		records.get( 75007 ).value = 0;
+		Assert.assertTrue( AVerification.verifyAll( records ).passedAll( ) );
+	}
+}
@@ -0,0 +1,82 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Min;
+
+public class PrecompiledTest
+{
+	static class Counter
+	{
+		@Min(0)
+		int count;
+	}
+
+	/**
+	 * Written like the output of the annotation processor.
+	 */
+	public static final class Counter$$Validator implements ClassVerificator
+	{
+		public static final String[]	CONSTRAINTS	= { "count@" + Min.class.getName( ) };
+
+		static int						verified;
+
+		public Counter$$Validator( Constraint[] constraints )
+		{
+
+		}
+
+		@Override
+		public void verify( Object o, long[] failures )
+		{
+			verified++;
+			if( ( (Counter) o ).count < 0 )
+				failures[0] |= 1L;
+		}
+
+		@Override
+		public boolean isValid( Object o )
+		{
+			return ( (Counter) o ).count >= 0;
+		}
+	}
+
+	@Test
+	public void testValidObjectsAllocateNoFailures() throws InstantiationException, IllegalAccessException
+	{
+		Assert.assertTrue( VerificationPlan.of( Counter.class ).compiled instanceof Counter$$Validator );
+
+		Counter counter = new Counter( );
+		Result result = AVerification.verify( counter );
+		Assert.assertTrue( result.passedAll( ) );
+		Assert.assertNull( result.failures );
+		Assert.assertEquals( 0, Counter$$Validator.verified );
+
+		counter.count = -1;
+		result = AVerification.verify( counter );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertNotNull( result.failures );
+		Assert.assertEquals( 1, Counter$$Validator.verified );
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.Min;
+
+public class PrimitiveTest
+{
+	@Min(100)
+	int intValue = 300;
+
+	@Interval(min=-1.5, max=1.5)
+	short shortValue;
+
+	@Max(Long.MAX_VALUE - 1024)
+	long longValue;
+
+	@Interval(min=0, max=0.5)
+	float floatValue;
+
+	@Min(100)
+	Long boxedValue = 100L;
+
+	@Test
+	public void testValidValues() throws InstantiationException, IllegalAccessException
+	{
+		// Truncation to byte must not affect the verification anymore
+		intValue = 300;
+		shortValue = -1;
+		longValue = 0;
+		floatValue = 0.5f;
+		boxedValue = 100L;
+
+		Result result = AVerification.verify( this );
+		Assert.assertTrue( result.toString( ), result.passedAll( ) );
+	}
+
+	@Test
+	public void testInvalidInt() throws InstantiationException, IllegalAccessException
+	{
+		intValue = 99;
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+	}
+
+	@Test
+	public void testInvalidShort() throws InstantiationException, IllegalAccessException
+	{
+		shortValue = -2;
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+	}
+
+	@Test
+	public void testInvalidLong() throws InstantiationException, IllegalAccessException
+	{
+		longValue = Long.MAX_VALUE;
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+	}
+
+	@Test
+	public void testInvalidFloat() throws InstantiationException, IllegalAccessException
+	{
+		floatValue = 0.51f;
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+	}
+
+	@Test
+	public void testInvalidBoxed() throws InstantiationException, IllegalAccessException
+	{
+		boxedValue = 99L;
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+
+		boxedValue = null;
+		Assert.assertFalse( AVerification.verify( this ).passedAll( ) );
+	}
+}
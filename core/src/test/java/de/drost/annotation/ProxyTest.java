@@ -0,0 +1,142 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class ProxyTest
+{
+	public interface Account
+	{
+		void deposit( @Interval(min = 1, max = 1000) int amount, @NotNull @MaxSize(8) String reference );
+
+		@Min(0)
+		long balance( );
+
+		@Max(1)
+		double ratio( double value );
+	}
+
+	static final class SimpleAccount implements Account
+	{
+		long balance;
+
+		@Override
+		public void deposit( int amount, String reference )
+		{
+			balance += amount;
+		}
+
+		@Override
+		public long balance( )
+		{
+			return balance;
+		}
+
+		@Override
+		public double ratio( double value )
+		{
+			return value;
+		}
+	}
+
+	@Test
+	public void testValidCalls() throws Exception
+	{
+		SimpleAccount target = new SimpleAccount( );
+		Account account = AVerification.proxy( Account.class, target );
+
+		account.deposit( 1000, "ref" );
+		Assert.assertEquals( 1000, account.balance( ) );
+		Assert.assertEquals( 0.5, account.ratio( 0.5 ), 0 );
+	}
+
+	@Test
+	public void testRejectedArguments() throws Exception
+	{
+		SimpleAccount target = new SimpleAccount( );
+		Account account = AVerification.proxy( Account.class, target );
+
+		try
+		{
+			account.deposit( 0, "ref" );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( 0, e.getValue( ) );
+			Assert.assertEquals( Interval.class, e.getViolated( ).get( 0 ) );
+		}
+
+		try
+		{
+			account.deposit( 1, null );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( 2, e.getViolated( ).size( ) );
+		}
+
+		// Rejected before the call
+		Assert.assertEquals( 0, target.balance );
+	}
+
+	@Test
+	public void testRejectedReturnValues() throws Exception
+	{
+		SimpleAccount target = new SimpleAccount( );
+		Account account = AVerification.proxy( Account.class, target );
+
+		target.balance = -1;
+		try
+		{
+			account.balance( );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( "balance#return", e.getField( ) );
+		}
+
+		try
+		{
+			account.ratio( 2 );
+			Assert.fail( );
+		}
+		catch( VerificationException e )
+		{
+			Assert.assertEquals( Max.class, e.getViolated( ).get( 0 ) );
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoInterface() throws Exception
+	{
+		AVerification.proxy( SimpleAccount.class, new SimpleAccount( ) );
+	}
+}
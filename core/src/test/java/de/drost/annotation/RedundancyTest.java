@@ -0,0 +1,101 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.VerificationPlan.Property;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class RedundancyTest
+{
+	static final class Sample
+	{
+		@NotNull
+		@Max(Long.MAX_VALUE)
+		@Min(0)
+		int count = 1;
+
+		@Interval(min = Integer.MIN_VALUE, max = Integer.MAX_VALUE)
+		int unbounded = 0;
+
+		@Min(0)
+		@Max(10)
+		Integer boxed = 5;
+
+		@Min(10)
+		@Max(0)
+		long contradictory = 5;
+	}
+
+	@Test
+	public void testRedundantConstraintsAreDropped() throws InstantiationException, IllegalAccessException
+	{
+		VerificationPlan plan = VerificationPlan.of( Sample.class );
+
+		// Only the minimum can fail an int
+		Property count = plan.properties[0];
+		Assert.assertTrue( count.primitive );
+		Assert.assertEquals( 3, count.constraints.length );
+		Assert.assertEquals( 1, count.range.constraints.length );
+
+		Property unbounded = plan.properties[1];
+		Assert.assertTrue( unbounded.primitive );
+		Assert.assertNull( unbounded.range );
+		Assert.assertEquals( 0, unbounded.checks.length );
+	}
+
+	@Test
+	public void testBoxedRange() throws InstantiationException, IllegalAccessException
+	{
+		Property boxed = VerificationPlan.of( Sample.class ).properties[2];
+		Assert.assertEquals( 2, boxed.range.constraints.length );
+		Assert.assertEquals( 0, boxed.checks.length );
+
+		Sample sample = new Sample( );
+		sample.contradictory = 0;
+		Assert.assertEquals( 1, AVerification.verify( sample ).getViolations( ).size( ) );
+
+		sample.boxed = 11;
+		Assert.assertEquals( 2, AVerification.verify( sample ).getViolations( ).size( ) );
+
+		// Null fails every bound, but is reported for each of them
+		sample.boxed = null;
+		Assert.assertEquals( 3, AVerification.verify( sample ).getViolations( ).size( ) );
+	}
+
+	@Test
+	public void testContradictoryRange() throws InstantiationException, IllegalAccessException
+	{
+		Property contradictory = VerificationPlan.of( Sample.class ).properties[3];
+		Assert.assertTrue( contradictory.range.isContradictory( ) );
+
+		Sample sample = new Sample( );
+		for( long value : new long[] { Long.MIN_VALUE, 0, 5, 10, Long.MAX_VALUE } )
+		{
+			sample.contradictory = value;
+			Assert.assertFalse( AVerification.isValid( sample ) );
+		}
+	}
+}
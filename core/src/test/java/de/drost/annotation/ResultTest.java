@@ -0,0 +1,97 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Evaluation;
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.NotNull;
+
+public class ResultTest
+{
+	@Min(0)
+	@Max(10)
+	int value = 5;
+
+	@NotNull
+	String name = "name";
+
+	@Test
+	public void testValidResult() throws InstantiationException, IllegalAccessException
+	{
+		Result result = AVerification.verify( this );
+		Assert.assertTrue( result.passedAll( ) );
+
+		List<Evaluation> evaluations = result.getEvaluations( );
+		Assert.assertEquals( 3, evaluations.size( ) );
+		Assert.assertSame( evaluations, result.getEvaluations( ) );
+
+		for( Evaluation e : evaluations )
+		{
+			Assert.assertTrue( e.toString( ), e.passed( ) );
+		}
+	}
+
+	@Test
+	public void testFailedConstraints() throws InstantiationException, IllegalAccessException
+	{
+		value = 11;
+		name = null;
+
+		Result result = AVerification.verify( this );
+		Assert.assertFalse( result.passedAll( ) );
+
+		int failed = 0;
+		for( Evaluation e : result.getEvaluations( ) )
+		{
+			if( !e.passed( ) )
+			{
+				failed++;
+				Assert.assertTrue( e.getAnnotation( ) instanceof Max || e.getAnnotation( ) instanceof NotNull );
+			}
+		}
+		Assert.assertEquals( 2, failed );
+		Assert.assertTrue( result.toString( ), result.toString( ).contains( "'value' (11)" ) );
+	}
+
+	@Test
+	public void testFieldRange() throws Exception
+	{
+		name = null;
+
+		Result result = AVerification.verifyField( this, "value" );
+		Assert.assertTrue( result.passedAll( ) );
+		Assert.assertEquals( 2, result.getEvaluations( ).size( ) );
+
+		Result other = AVerification.verifyField( this, "name" );
+		Assert.assertFalse( other.passedAll( ) );
+		Assert.assertEquals( 1, other.getEvaluations( ).size( ) );
+
+		result.merge( other );
+		Assert.assertFalse( result.passedAll( ) );
+		Assert.assertEquals( 3, result.getEvaluations( ).size( ) );
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.verification.Sizes;
+
+public class SizeTest
+{
+	@MaxSize(2)
+	Integer[] boxedArray = { 1, 2 };
+
+	@MinSize(1)
+	@MaxSize(2)
+	int[] intArray = { 1 };
+
+	@MaxSize(1)
+	Map<String, Integer> map = new HashMap<String, Integer>( );
+
+	@MinSize(2)
+	StringBuilder builder = new StringBuilder( "ab" );
+
+	// Measured by its runtime type
+	@MaxSize(2)
+	Object object = new long[2];
+
+	@MinSize(1)
+	Collection<Integer> lazy = new Lazy( 10000000 );
+
+	@MaxSize(3)
+	Iterable<Integer> iterable = new Lazy( 3 );
+
+	/**
+	 * A collection whose elements are only created while being iterated.
+	 */
+	static class Lazy extends AbstractCollection<Integer>
+	{
+		final int	size;
+		int			iterated;
+
+		Lazy( int size )
+		{
+			this.size = size;
+		}
+
+		@Override
+		public Iterator<Integer> iterator( )
+		{
+			return new Iterator<Integer>( )
+			{
+				int i;
+
+				@Override
+				public boolean hasNext( )
+				{
+					return i < size;
+				}
+
+				@Override
+				public Integer next( )
+				{
+					iterated++;
+					return i++;
+				}
+			};
+		}
+
+		@Override
+		public int size( )
+		{
+			throw new UnsupportedOperationException( "Traverses the whole collection" );
+		}
+	}
+
+	@Test
+	public void testValidSizes() throws Exception
+	{
+		Assert.assertTrue( AVerification.verify( this ).toString( ), AVerification.verify( this ).passedAll( ) );
+	}
+
+	@Test
+	public void testArrays() throws Exception
+	{
+		boxedArray = new Integer[3];
+		Assert.assertFalse( AVerification.verifyField( this, "boxedArray" ).passedAll( ) );
+
+		intArray = new int[0];
+		Assert.assertFalse( AVerification.verifyField( this, "intArray" ).passedAll( ) );
+		intArray = new int[3];
+		Assert.assertFalse( AVerification.verifyField( this, "intArray" ).passedAll( ) );
+		intArray = null;
+		Assert.assertFalse( AVerification.verifyField( this, "intArray" ).passedAll( ) );
+
+		object = new long[3];
+		Assert.assertFalse( AVerification.verifyField( this, "object" ).passedAll( ) );
+	}
+
+	@Test
+	public void testMapsAndCharSequences() throws Exception
+	{
+		map.put( "a", 1 );
+		Assert.assertTrue( AVerification.verifyField( this, "map" ).passedAll( ) );
+		map.put( "b", 2 );
+		Assert.assertFalse( AVerification.verifyField( this, "map" ).passedAll( ) );
+
+		builder.setLength( 1 );
+		Assert.assertFalse( AVerification.verifyField( this, "builder" ).passedAll( ) );
+	}
+
+	@Test
+	public void testBoundedProbes() throws Exception
+	{
+		Assert.assertTrue( AVerification.verifyField( this, "lazy" ).passedAll( ) );
+		Assert.assertEquals( 1, ( (Lazy) lazy ).iterated );
+
+		Assert.assertTrue( AVerification.verifyField( this, "iterable" ).passedAll( ) );
+		iterable = new Lazy( 100 );
+		Assert.assertFalse( AVerification.verifyField( this, "iterable" ).passedAll( ) );
+		Assert.assertEquals( 4, ( (Lazy) iterable ).iterated );
+
+		// Also probed if measured by the runtime type
+		object = new Lazy( 100 );
+		Assert.assertFalse( AVerification.verifyField( this, "object" ).passedAll( ) );
+		Assert.assertEquals( 3, ( (Lazy) object ).iterated );
+
+		ConcurrentLinkedQueue<Integer> queue = new ConcurrentLinkedQueue<Integer>( );
+		queue.add( 1 );
+		lazy = queue;
+		Assert.assertTrue( AVerification.verifyField( this, "lazy" ).passedAll( ) );
+		queue.clear( );
+		Assert.assertFalse( AVerification.verifyField( this, "lazy" ).passedAll( ) );
+	}
+
+	@Test
+	public void testViewsAreProbed()
+	{
+		TreeMap<Integer, Integer> tree = new TreeMap<Integer, Integer>( );
+		for( int i = 0; i < 100; i++ )
+			tree.put( i, i );
+
+		Assert.assertTrue( Sizes.hasConstantSize( TreeMap.class ) );
+		Assert.assertEquals( 100, Sizes.of( tree, 3 ) );
+
+		// The views count their elements, so they are only probed
+		Assert.assertFalse( Sizes.hasConstantSize( tree.tailMap( 10 ).getClass( ) ) );
+		Assert.assertEquals( 3, Sizes.of( tree.tailMap( 10 ), 3 ) );
+		Assert.assertEquals( 3, Sizes.of( tree.navigableKeySet( ).headSet( 90 ), 3 ) );
+	}
+
+	@Test
+	public void testMeasuredByFieldType() throws Exception
+	{
+		VerificationPlan plan = VerificationPlan.of( SizeTest.class );
+
+		Assert.assertEquals( Size.OBJECT_ARRAY, plan.property( SizeTest.class.getDeclaredField( "boxedArray" ) ).constraints[0].size );
+		Assert.assertEquals( Size.INT_ARRAY, plan.property( SizeTest.class.getDeclaredField( "intArray" ) ).constraints[0].size );
+		Assert.assertEquals( Size.MAP, plan.property( SizeTest.class.getDeclaredField( "map" ) ).constraints[0].size );
+		Assert.assertEquals( Size.CHAR_SEQUENCE, plan.property( SizeTest.class.getDeclaredField( "builder" ) ).constraints[0].size );
+		Assert.assertNull( plan.property( SizeTest.class.getDeclaredField( "object" ) ).constraints[0].size );
+	}
+}
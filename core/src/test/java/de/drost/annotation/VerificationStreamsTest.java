@@ -0,0 +1,145 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.Min;
+
+public class VerificationStreamsTest
+{
+	static class Record
+	{
+		@Min(0)
+		long value;
+
+		Record( long value )
+		{
+			this.value = value;
+		}
+	}
+
+	/**
+	 * Creates the records on demand, every 1000th record is invalid.
+	 */
+	static class Source implements Iterator<Record>
+	{
+		final long	count;
+		long		pulled;
+
+		Source( long count )
+		{
+			this.count = count;
+		}
+
+		@Override
+		public boolean hasNext( )
+		{
+			return pulled < count;
+		}
+
+		@Override
+		public Record next( )
+		{
+			if( !hasNext( ) )
+				throw new NoSuchElementException( );
+
+			long i = pulled++;
+			return new Record( ( i % 1000 == 999 ) ? -1 : i );
+		}
+	}
+
+	@Test
+	public void testViolations()
+	{
+		Source source = new Source( 1000000 );
+
+		List<String> first = VerificationStreams.violations( source ).limit( 2 ).map( Violation::getPath )
+				.collect( Collectors.toList( ) );
+		Assert.assertEquals( "[[999].value, [1999].value]", first.toString( ) );
+
+		// Only the records needed by the consumer have been pulled
+		Assert.assertEquals( 2000, source.pulled );
+	}
+
+	@Test
+	public void testViolationsOfStream()
+	{
+		Stream<Record> records = Stream.of( new Record( 1 ), null, new Record( -1 ) );
+		Assert.assertEquals( 1, VerificationStreams.violations( records ).count( ) );
+	}
+
+	@Test
+	public void testSplit()
+	{
+		final List<Record> valid = new ArrayList<Record>( );
+		final List<Result> invalid = new ArrayList<Result>( );
+
+		long count = VerificationStreams.split( new Source( 5000 ), new Consumer<Record>( )
+		{
+			@Override
+			public void accept( Record r )
+			{
+				valid.add( r );
+			}
+		}, new BiConsumer<Record, Result>( )
+		{
+			@Override
+			public void accept( Record r, Result result )
+			{
+				invalid.add( result );
+			}
+		} );
+
+		Assert.assertEquals( 5, count );
+		Assert.assertEquals( 4995, valid.size( ) );
+		Assert.assertEquals( 5, invalid.size( ) );
+		Assert.assertFalse( invalid.get( 0 ).passedAll( ) );
+	}
+
+	@Test
+	public void testBatches()
+	{
+		Source source = new Source( 2500 );
+		Iterator<Result> batches = VerificationStreams.batches( source, 1000 ).iterator( );
+
+		Result batch = batches.next( );
+		Assert.assertEquals( 1000, source.pulled );
+		Assert.assertFalse( batch.passedAll( ) );
+		Assert.assertEquals( 1, batch.getEvaluations( ).size( ) );
+
+		Assert.assertFalse( batches.next( ).passedAll( ) );
+
+		// The last batch holds the records 2000 to 2499 only
+		Assert.assertTrue( batches.next( ).passedAll( ) );
+		Assert.assertFalse( batches.hasNext( ) );
+	}
+}
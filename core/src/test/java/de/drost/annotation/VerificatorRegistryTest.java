@@ -0,0 +1,92 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.lang.annotation.Annotation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.verification.MinVerificator;
+
+public class VerificatorRegistryTest
+{
+	public static class CountingVerificator implements Verificator<Object, Annotation>
+	{
+		int calls;
+
+		@Override
+		public boolean verify( Object value, Annotation annotation )
+		{
+			return ++calls > 0;
+		}
+	}
+
+	@Stateful( Stateful.Scope.THREAD )
+	public static class ThreadVerificator extends CountingVerificator
+	{
+
+	}
+
+	@Test
+	public void testStatelessIsShared( ) throws InstantiationException, IllegalAccessException
+	{
+		Assert.assertTrue( VerificatorRegistry.isShared( MinVerificator.class ) );
+		Assert.assertSame( VerificatorRegistry.get( MinVerificator.class ),
+				VerificatorRegistry.get( MinVerificator.class ) );
+	}
+
+	@Test
+	public void testStatefulIsNotShared( ) throws InstantiationException, IllegalAccessException
+	{
+		Assert.assertFalse( VerificatorRegistry.isShared( CountingVerificator.class ) );
+		Assert.assertNotSame( VerificatorRegistry.get( CountingVerificator.class ),
+				VerificatorRegistry.get( CountingVerificator.class ) );
+	}
+
+	@Test
+	public void testThreadScope( ) throws InstantiationException, IllegalAccessException, InterruptedException
+	{
+		final ThreadVerificator main = VerificatorRegistry.get( ThreadVerificator.class );
+		Assert.assertSame( main, VerificatorRegistry.get( ThreadVerificator.class ) );
+
+		final Object[] other = new Object[1];
+		Thread t = new Thread( new Runnable( )
+		{
+			@Override
+			public void run( )
+			{
+				try
+				{
+					other[0] = VerificatorRegistry.get( ThreadVerificator.class );
+				}
+				catch( InstantiationException | IllegalAccessException e )
+				{
+					other[0] = e;
+				}
+			}
+		} );
+		t.start( );
+		t.join( );
+
+		Assert.assertTrue( other[0] instanceof ThreadVerificator );
+		Assert.assertNotSame( main, other[0] );
+	}
+}
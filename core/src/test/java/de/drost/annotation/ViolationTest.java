@@ -0,0 +1,196 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification.Result;
+import de.drost.annotation.prove.DecimalMin;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.NotNull;
+
+public class ViolationTest
+{
+	static class Account
+	{
+		@Interval(min = 0, max = 50)
+		int age = 10;
+
+		@NotNull
+		@MaxSize(4)
+		String password = "safe";
+
+		@DecimalMin(value = "0", inclusive = false)
+		Long id = 1L;
+
+		@Cascade
+		Account parent;
+	}
+
+	@Test
+	public void testViolations() throws InstantiationException, IllegalAccessException
+	{
+		Account account = new Account( );
+		Assert.assertTrue( AVerification.verify( account ).getViolations( ).isEmpty( ) );
+
+		account.age = 51;
+		account.password = "\"secret\"";
+		account.id = -1L;
+
+		List<Violation> violations = AVerification.verify( account ).getViolations( );
+		Assert.assertEquals( 3, violations.size( ) );
+
+		Violation age = violations.get( 0 );
+		Assert.assertEquals( "age", age.getPath( ) );
+		Assert.assertTrue( age.getConstraint( ) instanceof Interval );
+		Assert.assertEquals( "0.0, 50.0", age.getBound( ) );
+		Assert.assertEquals( 51, age.getValue( ) );
+		Assert.assertEquals( "'age' (51) has NOT been verified by @Interval(0.0, 50.0)", age.toString( ) );
+
+		// Rendered once per constraint, not per violation
+		Assert.assertSame( age.getBound( ), AVerification.verify( account ).getViolations( ).get( 0 ).getBound( ) );
+
+		Assert.assertEquals( "4", violations.get( 1 ).getBound( ) );
+		Assert.assertEquals( "0, false", violations.get( 2 ).getBound( ) );
+	}
+
+	@Test
+	public void testCascadedPath() throws InstantiationException, IllegalAccessException
+	{
+		Account account = new Account( );
+		account.parent = new Account( );
+		account.parent.password = null;
+
+		List<Violation> violations = AVerification.verifyCascading( account ).getViolations( );
+		Assert.assertEquals( 2, violations.size( ) );
+		Assert.assertEquals( "parent.password", violations.get( 0 ).getPath( ) );
+		Assert.assertNull( violations.get( 0 ).getBound( ) );
+		Assert.assertEquals( "parent.password", violations.get( 1 ).getPath( ) );
+	}
+
+	@Test
+	public void testFormat() throws InstantiationException, IllegalAccessException, IOException
+	{
+		Account account = new Account( );
+		account.age = -1;
+		account.password = "\"secret\"";
+
+		Result result = AVerification.verify( account );
+
+		StringBuilder text = new StringBuilder( );
+		ViolationFormatter.format( result, text );
+		Assert.assertEquals( "'age' (-1) has NOT been verified by @Interval(0.0, 50.0)\r\n"
+				+ "'password' has NOT been verified by @MaxSize(4)\r\n", text.toString( ) );
+
+		// Strings are never rendered
+		StringBuilder json = new StringBuilder( );
+		ViolationFormatter.formatJson( result, json );
+		Assert.assertEquals( "[{\"path\":\"age\",\"constraint\":\"Interval\",\"bound\":\"0.0, 50.0\",\"value\":-1},"
+				+ "{\"path\":\"password\",\"constraint\":\"MaxSize\",\"bound\":\"4\"}]", json.toString( ) );
+
+		account.password = null;
+		account.age = 0;
+		json.setLength( 0 );
+		ViolationFormatter.formatJson( AVerification.verify( account ), json );
+		Assert.assertEquals( "[{\"path\":\"password\",\"constraint\":\"NotNull\",\"value\":null},"
+				+ "{\"path\":\"password\",\"constraint\":\"MaxSize\",\"bound\":\"4\",\"value\":null}]",
+				json.toString( ) );
+	}
+
+	/**
+	 * A number whose text is no JSON number.
+	 */
+	@SuppressWarnings("serial")
+	static class Fraction extends Number
+	{
+		@Override
+		public int intValue( )
+		{
+			return 50;
+		}
+
+		@Override
+		public long longValue( )
+		{
+			return 50;
+		}
+
+		@Override
+		public float floatValue( )
+		{
+			return 50.5f;
+		}
+
+		@Override
+		public double doubleValue( )
+		{
+			return 50.5;
+		}
+
+		@Override
+		public String toString( )
+		{
+			return "101/2";
+		}
+	}
+
+	static class Amount
+	{
+		@Max(10)
+		Number value;
+	}
+
+	@Test
+	public void testJsonNumbers() throws InstantiationException, IllegalAccessException, IOException
+	{
+		Amount amount = new Amount( );
+		amount.value = new AtomicInteger( 11 );
+
+		StringBuilder json = new StringBuilder( );
+		ViolationFormatter.formatJson( AVerification.verify( amount ), json );
+		Assert.assertEquals( "[{\"path\":\"value\",\"constraint\":\"Max\",\"bound\":\"10.0\",\"value\":11}]",
+				json.toString( ) );
+
+		amount.value = new Fraction( );
+		json.setLength( 0 );
+		ViolationFormatter.formatJson( AVerification.verify( amount ), json );
+		Assert.assertEquals( "[{\"path\":\"value\",\"constraint\":\"Max\",\"bound\":\"10.0\",\"value\":\"101/2\"}]",
+				json.toString( ) );
+	}
+
+	@Test
+	public void testResultText() throws InstantiationException, IllegalAccessException
+	{
+		Account account = new Account( );
+		account.age = 51;
+
+		String text = AVerification.verify( account ).toString( );
+		Assert.assertTrue( text, text.startsWith( "'age' (51) has NOT been verified by @Interval(0.0, 50.0)\r\n" ) );
+		Assert.assertTrue( text, text.contains( "'password' has been verified by @NotNull\r\n" ) );
+		Assert.assertTrue( text, text.contains( "'id' has been verified by @DecimalMin(0, false)\r\n" ) );
+	}
+}
@@ -0,0 +1,335 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.generation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal writer of the class file format, sufficient for the small classes
+ * generated by this package. It maintains the constant pool and assembles
+ * fields and methods into the final class bytes.
+ * 
+ * @author kimschorat
+ *
+ */
+final class ClassFile
+{
+	/**
+	 * Java 11, the first version supporting the nest based access to private
+	 * members.
+	 */
+	private static final int VERSION = 55;
+
+	static final int	ACC_PUBLIC	= 0x0001;
+	static final int	ACC_PRIVATE	= 0x0002;
+	static final int	ACC_FINAL	= 0x0010;
+	static final int	ACC_SUPER	= 0x0020;
+
+	private final ByteArrayOutputStream	poolBytes	= new ByteArrayOutputStream( );
+	private final DataOutputStream		pool		= new DataOutputStream( poolBytes );
+	private final Map<String, Integer>	entries		= new HashMap<String, Integer>( );
+	private int							poolSize	= 1;
+
+	private final List<byte[]>			fields		= new ArrayList<byte[]>( );
+	private final List<byte[]>			methods		= new ArrayList<byte[]>( );
+
+	int utf8( String value )
+	{
+		Integer index = entries.get( "U" + value );
+		if( index != null )
+			return index;
+
+		try
+		{
+			pool.writeByte( 1 );
+			pool.writeUTF( value );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+		return add( "U" + value, 1 );
+	}
+
+	int classRef( String internalName )
+	{
+		return ref( "C" + internalName, 7, utf8( internalName ) );
+	}
+
+	int longConstant( long value )
+	{
+		Integer index = entries.get( "J" + value );
+		if( index != null )
+			return index;
+
+		write( 5 );
+		writeLong( value );
+		return add( "J" + value, 2 );
+	}
+
+	int doubleConstant( double value )
+	{
+		long bits = Double.doubleToRawLongBits( value );
+		Integer index = entries.get( "D" + bits );
+		if( index != null )
+			return index;
+
+		write( 6 );
+		writeLong( bits );
+		return add( "D" + bits, 2 );
+	}
+
+	int integerConstant( int value )
+	{
+		Integer index = entries.get( "I" + value );
+		if( index != null )
+			return index;
+
+		write( 3 );
+		writeInt( value );
+		return add( "I" + value, 1 );
+	}
+
+	int nameAndType( String name, String descriptor )
+	{
+		int n = utf8( name );
+		int d = utf8( descriptor );
+		String key = "N" + name + " " + descriptor;
+
+		Integer index = entries.get( key );
+		if( index != null )
+			return index;
+
+		write( 12 );
+		writeShort( n );
+		writeShort( d );
+		return add( key, 1 );
+	}
+
+	int fieldRef( String owner, String name, String descriptor )
+	{
+		return memberRef( 9, owner, name, descriptor );
+	}
+
+	int methodRef( String owner, String name, String descriptor )
+	{
+		return memberRef( 10, owner, name, descriptor );
+	}
+
+	int interfaceMethodRef( String owner, String name, String descriptor )
+	{
+		return memberRef( 11, owner, name, descriptor );
+	}
+
+	void addField( int access, String name, String descriptor )
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( bytes );
+		try
+		{
+			out.writeShort( access );
+			out.writeShort( utf8( name ) );
+			out.writeShort( utf8( descriptor ) );
+			out.writeShort( 0 );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+		fields.add( bytes.toByteArray( ) );
+	}
+
+	void addMethod( int access, String name, String descriptor, Code code )
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( bytes );
+		try
+		{
+			out.writeShort( access );
+			out.writeShort( utf8( name ) );
+			out.writeShort( utf8( descriptor ) );
+			out.writeShort( 1 );
+			code.writeAttribute( out );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+		methods.add( bytes.toByteArray( ) );
+	}
+
+	/**
+	 * Assembles the class.
+	 * 
+	 * @param access
+	 *            The access flags of the class.
+	 * @param name
+	 *            The internal name of the class.
+	 * @param superName
+	 *            The internal name of the super class.
+	 * @param interfaces
+	 *            The internal names of the implemented interfaces.
+	 * @return The bytes of the class file.
+	 */
+	byte[] toByteArray( int access, String name, String superName, String... interfaces )
+	{
+		int thisClass = classRef( name );
+		int superClass = classRef( superName );
+		int[] interfaceRefs = new int[interfaces.length];
+		for( int i = 0; i < interfaces.length; i++ )
+		{
+			interfaceRefs[i] = classRef( interfaces[i] );
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( bytes );
+		try
+		{
+			out.writeInt( 0xCAFEBABE );
+			out.writeShort( 0 );
+			out.writeShort( VERSION );
+			out.writeShort( poolSize );
+			pool.flush( );
+			poolBytes.writeTo( out );
+
+			out.writeShort( access );
+			out.writeShort( thisClass );
+			out.writeShort( superClass );
+			out.writeShort( interfaceRefs.length );
+			for( int ref : interfaceRefs )
+			{
+				out.writeShort( ref );
+			}
+
+			out.writeShort( fields.size( ) );
+			for( byte[] f : fields )
+			{
+				out.write( f );
+			}
+
+			out.writeShort( methods.size( ) );
+			for( byte[] m : methods )
+			{
+				out.write( m );
+			}
+
+			// No class attributes
+			out.writeShort( 0 );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+		return bytes.toByteArray( );
+	}
+
+	private int memberRef( int tag, String owner, String name, String descriptor )
+	{
+		int c = classRef( owner );
+		int nt = nameAndType( name, descriptor );
+		String key = "M" + tag + owner + " " + name + " " + descriptor;
+
+		Integer index = entries.get( key );
+		if( index != null )
+			return index;
+
+		write( tag );
+		writeShort( c );
+		writeShort( nt );
+		return add( key, 1 );
+	}
+
+	private int ref( String key, int tag, int target )
+	{
+		Integer index = entries.get( key );
+		if( index != null )
+			return index;
+
+		write( tag );
+		writeShort( target );
+		return add( key, 1 );
+	}
+
+	private int add( String key, int slots )
+	{
+		int index = poolSize;
+		entries.put( key, index );
+		poolSize += slots;
+
+		if( poolSize > 0xFFFF )
+			throw new IllegalStateException( "Constant pool overflow" );
+
+		return index;
+	}
+
+	private void write( int b )
+	{
+		try
+		{
+			pool.writeByte( b );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private void writeShort( int s )
+	{
+		try
+		{
+			pool.writeShort( s );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private void writeInt( int i )
+	{
+		try
+		{
+			pool.writeInt( i );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+
+	private void writeLong( long l )
+	{
+		try
+		{
+			pool.writeLong( l );
+		}
+		catch( IOException e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+}
@@ -0,0 +1,338 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.generation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The body of one generated method. Only forward branches are supported, and
+ * the local variables may only grow, so that the stack map frames of all
+ * branch targets can be derived from the declared locals.
+ * 
+ * @author kimschorat
+ *
+ */
+final class Code
+{
+	static final int	ACONST_NULL		= 0x01;
+	static final int	ICONST_0		= 0x03;
+	static final int	ICONST_1		= 0x04;
+	static final int	BIPUSH			= 0x10;
+	static final int	SIPUSH			= 0x11;
+	static final int	LDC				= 0x12;
+	static final int	LDC_W			= 0x13;
+	static final int	LDC2_W			= 0x14;
+	static final int	ALOAD			= 0x19;
+	static final int	LALOAD			= 0x2F;
+	static final int	AALOAD			= 0x32;
+	static final int	ASTORE			= 0x3A;
+	static final int	LASTORE			= 0x50;
+	static final int	DUP2			= 0x5C;
+	static final int	LOR				= 0x81;
+	static final int	I2L				= 0x85;
+	static final int	I2D				= 0x87;
+	static final int	F2D				= 0x8D;
+	static final int	LCMP			= 0x94;
+	static final int	DCMPL			= 0x97;
+	static final int	DCMPG			= 0x98;
+	static final int	IFEQ			= 0x99;
+	static final int	IFNE			= 0x9A;
+	static final int	IFLT			= 0x9B;
+	static final int	IFGE			= 0x9C;
+	static final int	IFGT			= 0x9D;
+	static final int	IFLE			= 0x9E;
+	static final int	GOTO			= 0xA7;
+	static final int	IRETURN			= 0xAC;
+	static final int	RETURN			= 0xB1;
+	static final int	GETSTATIC		= 0xB2;
+	static final int	GETFIELD		= 0xB4;
+	static final int	PUTFIELD		= 0xB5;
+	static final int	INVOKEVIRTUAL	= 0xB6;
+	static final int	INVOKESPECIAL	= 0xB7;
+	static final int	INVOKESTATIC	= 0xB8;
+	static final int	INVOKEINTERFACE	= 0xB9;
+	static final int	ARRAYLENGTH		= 0xBE;
+	static final int	CHECKCAST		= 0xC0;
+	static final int	INSTANCEOF		= 0xC1;
+	static final int	IFNULL			= 0xC6;
+	static final int	IFNONNULL		= 0xC7;
+
+	/**
+	 * The largest method body supported, which keeps all branch offsets
+	 * within 16 bit.
+	 */
+	static final int	MAX_LENGTH		= 0x7FFF;
+
+	private final ClassFile					cf;
+	private final int						maxStack;
+	private final int						maxLocals;
+
+	private byte[]							code	= new byte[256];
+	private int								length;
+
+	/**
+	 * The class names of the local variables declared in addition to the
+	 * parameters of the method.
+	 */
+	private final List<String>				locals	= new ArrayList<String>( );
+	private final Map<Integer, String[]>	frames	= new TreeMap<Integer, String[]>( );
+
+	/**
+	 * Creates an empty method body.
+	 * 
+	 * @param cf
+	 *            The class the method belongs to.
+	 * @param maxStack
+	 *            The maximum depth of the operand stack.
+	 * @param maxLocals
+	 *            The number of local variable slots, including the
+	 *            parameters.
+	 */
+	Code( ClassFile cf, int maxStack, int maxLocals )
+	{
+		this.cf = cf;
+		this.maxStack = maxStack;
+		this.maxLocals = maxLocals;
+	}
+
+	/**
+	 * A position within the code, only to be branched to in forward
+	 * direction.
+	 */
+	static final class Label
+	{
+		private int					position	= -1;
+		private final List<Integer>	branches	= new ArrayList<Integer>( );
+	}
+
+	int length( )
+	{
+		return length;
+	}
+
+	void op( int opcode )
+	{
+		u1( opcode );
+	}
+
+	void op( int opcode, int operand )
+	{
+		u1( opcode );
+		u2( operand );
+	}
+
+	void load( int opcode, int slot )
+	{
+		u1( opcode );
+		u1( slot );
+	}
+
+	void push( int value )
+	{
+		if( value >= -1 && value <= 5 )
+		{
+			op( ICONST_0 + value );
+		}
+		else if( value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE )
+		{
+			u1( BIPUSH );
+			u1( value );
+		}
+		else if( value >= Short.MIN_VALUE && value <= Short.MAX_VALUE )
+		{
+			op( SIPUSH, value );
+		}
+		else
+		{
+			ldc( cf.integerConstant( value ) );
+		}
+	}
+
+	void ldc( int index )
+	{
+		if( index <= 0xFF )
+		{
+			u1( LDC );
+			u1( index );
+		}
+		else
+		{
+			op( LDC_W, index );
+		}
+	}
+
+	void invokeInterface( String owner, String name, String descriptor, int argumentSlots )
+	{
+		op( INVOKEINTERFACE, cf.interfaceMethodRef( owner, name, descriptor ) );
+		u1( argumentSlots + 1 );
+		u1( 0 );
+	}
+
+	/**
+	 * Declares a new local variable of a reference type, visible to all
+	 * following branch targets.
+	 * 
+	 * @param internalName
+	 *            The class or array descriptor of the variable.
+	 */
+	void local( String internalName )
+	{
+		locals.add( internalName );
+	}
+
+	void jump( int opcode, Label target )
+	{
+		if( target.position >= 0 )
+			throw new IllegalStateException( "Backward branches are not supported" );
+
+		target.branches.add( length );
+		op( opcode, 0 );
+	}
+
+	/**
+	 * Places the label at the current position.
+	 */
+	void mark( Label label )
+	{
+		label.position = length;
+
+		for( int branch : label.branches )
+		{
+			int offset = length - branch;
+			code[branch + 1] = (byte) ( offset >>> 8 );
+			code[branch + 2] = (byte) offset;
+		}
+
+		if( !label.branches.isEmpty( ) )
+		{
+			frames.put( length, locals.toArray( new String[locals.size( )] ) );
+		}
+	}
+
+	/**
+	 * Writes this method body as {@code Code} attribute.
+	 */
+	void writeAttribute( DataOutputStream out ) throws IOException
+	{
+		if( length > MAX_LENGTH )
+			throw new IllegalStateException( "Method too large" );
+
+		int codeName = cf.utf8( "Code" );
+		byte[] stackMap = stackMap( );
+
+		out.writeShort( codeName );
+		out.writeInt( 12 + length + ( ( stackMap != null ) ? 6 + stackMap.length : 0 ) );
+		out.writeShort( maxStack );
+		out.writeShort( maxLocals );
+		out.writeInt( length );
+		out.write( code, 0, length );
+
+		// No exception handlers
+		out.writeShort( 0 );
+
+		if( stackMap != null )
+		{
+			out.writeShort( 1 );
+			out.writeShort( cf.utf8( "StackMapTable" ) );
+			out.writeInt( stackMap.length );
+			out.write( stackMap );
+		}
+		else
+		{
+			out.writeShort( 0 );
+		}
+	}
+
+	private byte[] stackMap( ) throws IOException
+	{
+		if( frames.isEmpty( ) )
+			return null;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( bytes );
+
+		out.writeShort( frames.size( ) );
+
+		String[] previous = new String[0];
+		int previousOffset = -1;
+
+		for( Map.Entry<Integer, String[]> frame : frames.entrySet( ) )
+		{
+			int delta = frame.getKey( ) - previousOffset - 1;
+			String[] current = frame.getValue( );
+
+			if( Arrays.equals( previous, current ) )
+			{
+				// same_frame
+				if( delta < 64 )
+				{
+					out.writeByte( delta );
+				}
+				else
+				{
+					out.writeByte( 251 );
+					out.writeShort( delta );
+				}
+			}
+			else
+			{
+				int added = current.length - previous.length;
+				if( added < 1 || added > 3
+						|| !Arrays.equals( previous, Arrays.copyOf( current, previous.length ) ) )
+					throw new IllegalStateException( "Unsupported change of locals" );
+
+				// append_frame
+				out.writeByte( 251 + added );
+				out.writeShort( delta );
+				for( int i = previous.length; i < current.length; i++ )
+				{
+					out.writeByte( 7 );
+					out.writeShort( cf.classRef( current[i] ) );
+				}
+			}
+
+			previous = current;
+			previousOffset = frame.getKey( );
+		}
+		return bytes.toByteArray( );
+	}
+
+	private void u1( int b )
+	{
+		if( length == code.length )
+		{
+			code = Arrays.copyOf( code, code.length * 2 );
+		}
+		code[length++] = (byte) b;
+	}
+
+	private void u2( int s )
+	{
+		u1( s >>> 8 );
+		u1( s );
+	}
+}
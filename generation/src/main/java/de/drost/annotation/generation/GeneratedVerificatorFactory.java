@@ -0,0 +1,124 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.generation;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodHandles.Lookup.ClassOption;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import de.drost.annotation.ClassVerificator;
+import de.drost.annotation.ClassVerificatorFactory;
+import de.drost.annotation.Constraint;
+
+/**
+ * Backend generating a dedicated verificator class for each verified class at
+ * runtime. The generated class is defined as hidden class within the nest of
+ * the verified class, so it reads even private fields directly.
+ * <p>
+ * Classes whose package is not open to this library are not supported and
+ * remain to be verified reflectively.
+ * 
+ * @author kimschorat
+ *
+ */
+public final class GeneratedVerificatorFactory implements ClassVerificatorFactory
+{
+	private static final System.Logger	LOGGER	= System.getLogger( GeneratedVerificatorFactory.class.getName( ) );
+
+	@Override
+	public ClassVerificator create( Class<?> type, List<Constraint> constraints )
+	{
+		if( type.isInterface( ) || type.isArray( ) || type.isPrimitive( ) || type.isHidden( ) )
+			return null;
+
+		try
+		{
+			// Required if this library is deployed as a named module
+			GeneratedVerificatorFactory.class.getModule( ).addReads( type.getModule( ) );
+
+			Lookup lookup = MethodHandles.privateLookupIn( type, MethodHandles.lookup( ) );
+			if( !lookup.hasFullPrivilegeAccess( ) )
+				return null;
+
+			byte[] bytes = new VerificatorGenerator( type, constraints ).generate( );
+			if( bytes == null )
+				return null;
+
+			Lookup hidden = lookup.defineHiddenClass( bytes, true, ClassOption.NESTMATE );
+			MethodHandle constructor = hidden.findConstructor( hidden.lookupClass( ),
+					MethodType.methodType( void.class, Predicate[].class ) );
+
+			@SuppressWarnings( "unchecked" )
+			BiConsumer<Object, long[]> verificator = (BiConsumer<Object, long[]>) constructor
+					.invoke( constraints.toArray( new Predicate<?>[constraints.size( )] ) );
+
+			return new GeneratedVerificator( verificator );
+		}
+		catch( IllegalAccessException | LinkageError e )
+		{
+			// Not accessible, falls back to the reflective evaluation
+			return null;
+		}
+		catch( RuntimeException e )
+		{
+			// A class that cannot be generated is still verified reflectively
+			LOGGER.log( System.Logger.Level.DEBUG, "Failed to generate the verificator of " + type.getName( ), e );
+			return null;
+		}
+		catch( Throwable e )
+		{
+			throw new IllegalStateException( e );
+		}
+	}
+
+	/**
+	 * Adapts the generated class, which only references JDK types, to the
+	 * {@link ClassVerificator} interface.
+	 */
+	private static final class GeneratedVerificator implements ClassVerificator
+	{
+		private final BiConsumer<Object, long[]>	verificator;
+		private final Predicate<Object>				failFast;
+
+		@SuppressWarnings( "unchecked" )
+		GeneratedVerificator( BiConsumer<Object, long[]> verificator )
+		{
+			this.verificator = verificator;
+			this.failFast = (Predicate<Object>) verificator;
+		}
+
+		@Override
+		public void verify( Object o, long[] failures )
+		{
+			verificator.accept( o, failures );
+		}
+
+		@Override
+		public boolean isValid( Object o )
+		{
+			return failFast.test( o );
+		}
+	}
+}
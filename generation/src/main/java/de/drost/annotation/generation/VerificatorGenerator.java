@@ -0,0 +1,544 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.generation;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import de.drost.annotation.Constraint;
+import de.drost.annotation.generation.Code.Label;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+import de.drost.annotation.support.Getter;
+import de.drost.annotation.verification.IntervalVerificator;
+import de.drost.annotation.verification.MaxSizeVerificator;
+import de.drost.annotation.verification.MaxVerificator;
+import de.drost.annotation.verification.MinSizeVerificator;
+import de.drost.annotation.verification.MinVerificator;
+import de.drost.annotation.verification.NotNullVerificator;
+import de.drost.annotation.verification.Sizes;
+
+/**
+ * Generates the class file of a verificator dedicated to one class. The
+ * generated class implements {@code BiConsumer<Object, long[]>} and checks
+ * all constraints one after another in straight-line code like
+ * 
+ * <pre>
+ * if( ( (Type) o ).value &lt; 10 )
+ * 	failures[0] |= 1L &lt;&lt; 3;
+ * </pre>
+ * 
+ * Numeric bounds, sizes and null checks on fields declared by the class
+ * itself are compiled directly into the code, as long as the annotations are
+ * bound to the verificators of this library. All other constraints are delegated to
+ * the {@link Constraint} instances passed to the constructor of the generated
+ * class.
+ * <p>
+ * As {@code Predicate<Object>} the generated class returns at the first
+ * violated constraint, evaluating the inlined checks before the delegated
+ * ones.
+ * <p>
+ * Only JDK types are referenced by the generated code, as it is defined as
+ * hidden class within the package and module of the verified class.
+ * 
+ * @author kimschorat
+ *
+ */
+final class VerificatorGenerator
+{
+	static final String			PREDICATE			= "java/util/function/Predicate";
+	static final String			BI_CONSUMER			= "java/util/function/BiConsumer";
+	static final String			CONSTRUCTOR			= "([L" + PREDICATE + ";)V";
+
+	private static final String	DELEGATES			= "delegates";
+	private static final String	DELEGATES_TYPE		= "[L" + PREDICATE + ";";
+	private static final double	LONG_RANGE			= 0x1p63;
+
+	/**
+	 * Local variable slots of the generated verify method.
+	 */
+	private static final int	THIS				= 0;
+	private static final int	OBJECT				= 1;
+	private static final int	FAILURES			= 3;
+
+	/**
+	 * The slot of the local variable holding the value of a measured field,
+	 * which differs between the generated methods.
+	 */
+	private int						scratch;
+
+	private final Class<?>			type;
+	private final String			name;
+	private final List<Constraint>	constraints;
+	private final ClassFile			cf	= new ClassFile( );
+
+	VerificatorGenerator( Class<?> type, List<Constraint> constraints )
+	{
+		this.type = type;
+		this.name = internalName( type ) + "$$Verificator";
+		this.constraints = constraints;
+	}
+
+	/**
+	 * Generates the verificator class.
+	 * 
+	 * @return The class file bytes or {@code null} if the class is too large
+	 *         to be compiled.
+	 */
+	byte[] generate( )
+	{
+		cf.addField( ClassFile.ACC_PRIVATE | ClassFile.ACC_FINAL, DELEGATES, DELEGATES_TYPE );
+
+		Code init = new Code( cf, 2, 2 );
+		init.load( Code.ALOAD, THIS );
+		init.op( Code.INVOKESPECIAL, cf.methodRef( "java/lang/Object", "<init>", "()V" ) );
+		init.load( Code.ALOAD, THIS );
+		init.load( Code.ALOAD, OBJECT );
+		init.op( Code.PUTFIELD, cf.fieldRef( name, DELEGATES, DELEGATES_TYPE ) );
+		init.op( Code.RETURN );
+		cf.addMethod( ClassFile.ACC_PUBLIC, "<init>", CONSTRUCTOR, init );
+
+		Code verify = new Code( cf, 6, 5 );
+		verify.load( Code.ALOAD, 2 );
+		verify.op( Code.CHECKCAST, cf.classRef( "[J" ) );
+		verify.load( Code.ASTORE, FAILURES );
+		verify.local( "[J" );
+		declareScratch( verify, FAILURES + 1 );
+
+		for( Constraint c : constraints )
+		{
+			verify( verify, c );
+
+			if( verify.length( ) > Code.MAX_LENGTH )
+				return null;
+		}
+		verify.op( Code.RETURN );
+		cf.addMethod( ClassFile.ACC_PUBLIC, "accept", "(Ljava/lang/Object;Ljava/lang/Object;)V", verify );
+
+		Code test = new Code( cf, 6, 3 );
+		declareScratch( test, OBJECT + 1 );
+		Label failed = new Label( );
+		boolean branches = false;
+		boolean fails = false;
+
+		// Inlined checks first, as they are cheaper than the delegated ones
+		for( int pass = 0; pass < 2 && !fails; pass++ )
+		{
+			for( Constraint c : constraints )
+			{
+				if( isInlined( c ) != ( pass == 0 ) )
+					continue;
+
+				Outcome outcome = emitViolation( test, c, failed );
+				if( outcome == Outcome.FAIL )
+				{
+					// Always fails, nothing else needs to be checked
+					fails = true;
+					break;
+				}
+				branches |= outcome == Outcome.CHECK;
+
+				if( test.length( ) > Code.MAX_LENGTH )
+					return null;
+			}
+		}
+		if( !fails )
+		{
+			test.op( Code.ICONST_1 );
+			test.op( Code.IRETURN );
+		}
+		if( branches )
+		{
+			test.mark( failed );
+		}
+		if( fails || branches )
+		{
+			test.op( Code.ICONST_0 );
+			test.op( Code.IRETURN );
+		}
+		cf.addMethod( ClassFile.ACC_PUBLIC, "test", "(Ljava/lang/Object;)Z", test );
+
+		return cf.toByteArray( ClassFile.ACC_PUBLIC | ClassFile.ACC_FINAL | ClassFile.ACC_SUPER, name,
+				"java/lang/Object", BI_CONSUMER, PREDICATE );
+	}
+
+	/**
+	 * Declares the local variable holding the value of a measured field.
+	 */
+	private void declareScratch( Code code, int slot )
+	{
+		scratch = slot;
+
+		code.op( Code.ACONST_NULL );
+		code.load( Code.ASTORE, slot );
+		code.local( "java/lang/Object" );
+	}
+
+	/**
+	 * Emits the check of one constraint, which marks the constraint as failed
+	 * if the value violates it.
+	 */
+	private void verify( Code code, Constraint c )
+	{
+		Label failed = new Label( );
+		Label passed = new Label( );
+
+		switch( emitViolation( code, c, failed ) )
+		{
+			case PASS:
+				return;
+			case FAIL:
+				markFailed( code, c.getIndex( ) );
+				return;
+			default:
+				code.jump( Code.GOTO, passed );
+				code.mark( failed );
+				markFailed( code, c.getIndex( ) );
+				code.mark( passed );
+		}
+	}
+
+	/**
+	 * The outcome of a constraint as far as known at generation time.
+	 */
+	private static enum Outcome
+	{
+		PASS, FAIL, CHECK
+	}
+
+	/**
+	 * Emits the branches to the specified label taken if the constraint is
+	 * violated.
+	 */
+	private Outcome emitViolation( Code code, Constraint c, Label failed )
+	{
+		Field f = c.getField( );
+		Annotation a = c.getAnnotation( );
+		Class<?> t = f.getType( );
+
+		if( isInlined( c ) )
+		{
+			if( a instanceof NotNull )
+			{
+				if( t.isPrimitive( ) )
+					return Outcome.PASS;
+
+				loadField( code, f );
+				code.jump( Code.IFNULL, failed );
+				return Outcome.CHECK;
+			}
+			else if( a instanceof Min )
+			{
+				return emitBounds( code, f, ( (Min) a ).value( ), Double.NaN, failed );
+			}
+			else if( a instanceof Max )
+			{
+				return emitBounds( code, f, Double.NaN, ( (Max) a ).value( ), failed );
+			}
+			else if( a instanceof Interval )
+			{
+				return emitBounds( code, f, ( (Interval) a ).min( ), ( (Interval) a ).max( ), failed );
+			}
+			else if( a instanceof MinSize )
+			{
+				return emitSize( code, f, ( (MinSize) a ).value( ), Long.MAX_VALUE, failed );
+			}
+			else if( a instanceof MaxSize )
+			{
+				return emitSize( code, f, 0, ( (MaxSize) a ).value( ), failed );
+			}
+		}
+
+		// Delegates to the reflective evaluation
+		code.load( Code.ALOAD, THIS );
+		code.op( Code.GETFIELD, cf.fieldRef( name, DELEGATES, DELEGATES_TYPE ) );
+		code.push( c.getIndex( ) );
+		code.op( Code.AALOAD );
+		code.load( Code.ALOAD, OBJECT );
+		code.invokeInterface( PREDICATE, "test", "(Ljava/lang/Object;)Z", 1 );
+		code.jump( Code.IFEQ, failed );
+		return Outcome.CHECK;
+	}
+
+	/**
+	 * Checks whether the constraint is compiled directly into the code instead
+	 * of being delegated.
+	 */
+	private boolean isInlined( Constraint c )
+	{
+		Field f = c.getField( );
+		Annotation a = c.getAnnotation( );
+
+		// Fields with a getter are read by their accessor
+		if( f.getDeclaringClass( ) != type || f.isAnnotationPresent( Getter.class ) )
+			return false;
+
+		// Annotations bound to another verificator by the registry are delegated
+		Class<?> v = c.getVerificator( );
+		if( a instanceof NotNull )
+			return v == NotNullVerificator.class;
+		if( a instanceof Min || a instanceof Max || a instanceof Interval )
+			return isNumeric( f.getType( ) ) && ( ( a instanceof Min && v == MinVerificator.class )
+					|| ( a instanceof Max && v == MaxVerificator.class )
+					|| ( a instanceof Interval && v == IntervalVerificator.class ) );
+		if( a instanceof MinSize || a instanceof MaxSize )
+			return sizeOwner( f.getType( ) ) != null && ( ( a instanceof MinSize && v == MinSizeVerificator.class )
+					|| ( a instanceof MaxSize && v == MaxSizeVerificator.class ) );
+		return false;
+	}
+
+	/**
+	 * Emits the comparison of the size of a field against its bounds. The
+	 * size is read by the static type of the field, null values violate the
+	 * constraint like in the evaluation by the size verificators.
+	 */
+	private Outcome emitSize( Code code, Field f, long min, long max, Label failed )
+	{
+		if( max < 0 )
+			return Outcome.FAIL;
+
+		// Reads the field once, as its value is checked for null first
+		loadField( code, f );
+		code.load( Code.ASTORE, scratch );
+		code.load( Code.ALOAD, scratch );
+		code.jump( Code.IFNULL, failed );
+
+		if( min > 0 )
+		{
+			emitSize( code, f.getType( ) );
+			code.op( Code.LDC2_W, cf.longConstant( min ) );
+			code.op( Code.LCMP );
+			code.jump( Code.IFLT, failed );
+		}
+		if( max < Integer.MAX_VALUE )
+		{
+			emitSize( code, f.getType( ) );
+			code.op( Code.LDC2_W, cf.longConstant( max ) );
+			code.op( Code.LCMP );
+			code.jump( Code.IFGT, failed );
+		}
+		return Outcome.CHECK;
+	}
+
+	/**
+	 * Pushes the size of the value held by the scratch variable as
+	 * {@code long}.
+	 */
+	private void emitSize( Code code, Class<?> t )
+	{
+		String owner = sizeOwner( t );
+
+		code.load( Code.ALOAD, scratch );
+		code.op( Code.CHECKCAST, cf.classRef( owner ) );
+
+		if( t.isArray( ) )
+		{
+			code.op( Code.ARRAYLENGTH );
+		}
+		else if( t == String.class )
+		{
+			code.op( Code.INVOKEVIRTUAL, cf.methodRef( owner, "length", "()I" ) );
+		}
+		else if( owner.equals( "java/lang/CharSequence" ) )
+		{
+			code.invokeInterface( owner, "length", "()I", 0 );
+		}
+		else
+		{
+			code.invokeInterface( owner, "size", "()I", 0 );
+		}
+		code.op( Code.I2L );
+	}
+
+	/**
+	 * Returns the type declaring the size of the values of a field type.
+	 * Collections and maps are only measured directly if their size is known
+	 * to be constant time, otherwise they are probed by the delegate.
+	 * 
+	 * @return The internal name of the type or {@code null} if the values
+	 *         are not measured directly.
+	 */
+	private static String sizeOwner( Class<?> t )
+	{
+		if( t.isArray( ) )
+			return internalName( t );
+		if( t == String.class )
+			return "java/lang/String";
+		if( CharSequence.class.isAssignableFrom( t ) )
+			return "java/lang/CharSequence";
+		if( !Sizes.hasConstantSize( t ) )
+			return null;
+		if( Collection.class.isAssignableFrom( t ) )
+			return "java/util/Collection";
+		if( Map.class.isAssignableFrom( t ) )
+			return "java/util/Map";
+		return null;
+	}
+
+	/**
+	 * Emits the comparison of a numeric field against its lower and upper
+	 * bound. A bound of {@code NaN} is never violated, which matches the
+	 * evaluation by the verificators.
+	 */
+	private Outcome emitBounds( Code code, Field f, double min, double max, Label failed )
+	{
+		Class<?> t = f.getType( );
+
+		if( t == long.class )
+		{
+			// Compares within the long domain, see Bounds
+			if( min >= LONG_RANGE || max < -LONG_RANGE )
+				return Outcome.FAIL;
+
+			boolean checkMin = !( min <= -LONG_RANGE || Double.isNaN( min ) );
+			boolean checkMax = !( max >= LONG_RANGE || Double.isNaN( max ) );
+
+			if( checkMin )
+			{
+				loadField( code, f );
+				code.op( Code.LDC2_W, cf.longConstant( (long) Math.ceil( min ) ) );
+				code.op( Code.LCMP );
+				code.jump( Code.IFLT, failed );
+			}
+			if( checkMax )
+			{
+				loadField( code, f );
+				code.op( Code.LDC2_W, cf.longConstant( (long) Math.floor( max ) ) );
+				code.op( Code.LCMP );
+				code.jump( Code.IFGT, failed );
+			}
+			return ( checkMin || checkMax ) ? Outcome.CHECK : Outcome.PASS;
+		}
+
+		boolean checkMin = !Double.isNaN( min );
+		boolean checkMax = !Double.isNaN( max );
+
+		if( checkMin )
+		{
+			loadDouble( code, f );
+			code.op( Code.LDC2_W, cf.doubleConstant( min ) );
+			code.op( Code.DCMPG );
+			code.jump( Code.IFLT, failed );
+		}
+		if( checkMax )
+		{
+			loadDouble( code, f );
+			code.op( Code.LDC2_W, cf.doubleConstant( max ) );
+			code.op( Code.DCMPL );
+			code.jump( Code.IFGT, failed );
+		}
+		return ( checkMin || checkMax ) ? Outcome.CHECK : Outcome.PASS;
+	}
+
+	/**
+	 * Emits {@code failures[index >>> 6] |= 1L << index}.
+	 */
+	private void markFailed( Code code, int index )
+	{
+		code.load( Code.ALOAD, FAILURES );
+		code.push( index >>> 6 );
+		code.op( Code.DUP2 );
+		code.op( Code.LALOAD );
+		code.op( Code.LDC2_W, cf.longConstant( 1L << index ) );
+		code.op( Code.LOR );
+		code.op( Code.LASTORE );
+	}
+
+	/**
+	 * Pushes the value of a numeric field widened to {@code double}.
+	 */
+	private void loadDouble( Code code, Field f )
+	{
+		loadField( code, f );
+
+		Class<?> t = f.getType( );
+		if( t == float.class )
+		{
+			code.op( Code.F2D );
+		}
+		else if( t != double.class )
+		{
+			code.op( Code.I2D );
+		}
+	}
+
+	private void loadField( Code code, Field f )
+	{
+		String owner = internalName( f.getDeclaringClass( ) );
+
+		if( Modifier.isStatic( f.getModifiers( ) ) )
+		{
+			code.op( Code.GETSTATIC, cf.fieldRef( owner, f.getName( ), descriptor( f.getType( ) ) ) );
+		}
+		else
+		{
+			code.load( Code.ALOAD, OBJECT );
+			code.op( Code.CHECKCAST, cf.classRef( owner ) );
+			code.op( Code.GETFIELD, cf.fieldRef( owner, f.getName( ), descriptor( f.getType( ) ) ) );
+		}
+	}
+
+	/**
+	 * Checks for the primitive types compared by the numeric verificators.
+	 * Boxed numbers are delegated.
+	 */
+	private static boolean isNumeric( Class<?> t )
+	{
+		return t.isPrimitive( ) && t != boolean.class && t != void.class;
+	}
+
+	static String internalName( Class<?> type )
+	{
+		return type.getName( ).replace( '.', '/' );
+	}
+
+	static String descriptor( Class<?> type )
+	{
+		if( type.isArray( ) )
+			return internalName( type );
+		if( type == int.class )
+			return "I";
+		if( type == long.class )
+			return "J";
+		if( type == double.class )
+			return "D";
+		if( type == float.class )
+			return "F";
+		if( type == short.class )
+			return "S";
+		if( type == byte.class )
+			return "B";
+		if( type == char.class )
+			return "C";
+		if( type == boolean.class )
+			return "Z";
+		if( type == void.class )
+			return "V";
+		return "L" + internalName( type ) + ";";
+	}
+}
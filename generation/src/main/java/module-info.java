@@ -0,0 +1,37 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+/**
+ * Generates a dedicated verificator class for each verified class at
+ * runtime.
+ * <p>
+ * The packages of verified classes have to be open to this module, like
+ * {@code opens com.example.model to de.drost.annotation.generation;}.
+ * 
+ * @author kimschorat
+ *
+ */
+module de.drost.annotation.generation
+{
+	requires de.drost.annotation;
+
+	provides de.drost.annotation.ClassVerificatorFactory
+			with de.drost.annotation.generation.GeneratedVerificatorFactory;
+}
@@ -0,0 +1,238 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.generation;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification;
+import de.drost.annotation.ClassVerificator;
+import de.drost.annotation.Constraint;
+import de.drost.annotation.ConstraintRegistry;
+import de.drost.annotation.Verificator;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+import de.drost.annotation.verification.MaxVerificator;
+
+public class GeneratedVerificatorTest
+{
+	static class Sample
+	{
+		@Min(10)
+		private int intValue = 10;
+
+		@Interval(min=-1, max=1)
+		private char charValue = 0;
+
+		@Max(Long.MAX_VALUE)
+		@Min(-100)
+		private long longValue = 0;
+
+		@Interval(min=0, max=0.5)
+		private float floatValue = 0.25f;
+
+		@Max(1)
+		private double doubleValue = Double.NaN;
+
+		@NotNull
+		@Min(0)
+		private Integer boxedValue = 0;
+
+		@MaxSize(3)
+		private String string = "abc";
+
+		@MinSize(1)
+		@MaxSize(2)
+		private int[] array = { 1 };
+
+		@MaxSize(1)
+		private Map<String, String> map = new HashMap<String, String>( );
+
+		@MinSize(1)
+		private StringBuilder builder = new StringBuilder( "a" );
+	}
+
+	@Test
+	public void testGeneratedMatchesReflective( ) throws Exception
+	{
+		Sample s = new Sample( );
+		ClassVerificator verificator = create( s );
+		assertSame( verificator, s );
+		Assert.assertTrue( verificator.isValid( s ) );
+
+		s.intValue = 9;
+		s.charValue = 2;
+		s.longValue = -101;
+		s.floatValue = 0.6f;
+		s.doubleValue = 2;
+		s.boxedValue = null;
+		s.string = "abcd";
+		s.array = new int[3];
+		s.map.put( "a", "a" );
+		s.map.put( "b", "b" );
+		s.builder.setLength( 0 );
+		assertSame( verificator, s );
+
+		long[] failures = new long[1];
+		verificator.verify( s, failures );
+		// Everything but @Max(Long.MAX_VALUE) and @MinSize(1) of the array has failed
+		Assert.assertEquals( constraints( s ).size( ) - 2, Long.bitCount( failures[0] ) );
+		Assert.assertFalse( verificator.isValid( s ) );
+
+		s.array = null;
+		s.map = null;
+		s.builder = null;
+		assertSame( verificator, s );
+	}
+
+	@Test
+	public void testWideClass( ) throws Exception
+	{
+		Wide w = new Wide( );
+		ClassVerificator verificator = create( w );
+
+		long[] failures = new long[2];
+		verificator.verify( w, failures );
+		Assert.assertEquals( 0, failures[0] );
+		Assert.assertEquals( 0, failures[1] );
+		Assert.assertTrue( verificator.isValid( w ) );
+
+		w.v69 = -1;
+		Assert.assertFalse( verificator.isValid( w ) );
+		verificator.verify( w, failures );
+		Assert.assertEquals( 0, failures[0] );
+		Assert.assertEquals( 1L << 5, failures[1] );
+	}
+
+	/**
+	 * Passes every value.
+	 */
+	public static class Lenient implements Verificator<Object, Max>
+	{
+		@Override
+		public boolean verify( Object value, Max annotation )
+		{
+			return true;
+		}
+	}
+
+	static class Overridden
+	{
+		@Max(0)
+		int value = 1;
+
+		@Min(0)
+		int other = 1;
+	}
+
+	@Test
+	public void testRegisteredVerificatorIsDelegated( ) throws Exception
+	{
+		ConstraintRegistry.register( Max.class, Lenient.class );
+		try
+		{
+			Overridden o = new Overridden( );
+			ClassVerificator verificator = create( o );
+			Assert.assertTrue( verificator.isValid( o ) );
+			assertSame( verificator, o );
+
+			// The same verdict as the reflective evaluation
+			Assert.assertTrue( AVerification.verify( o ).passedAll( ) );
+			Assert.assertTrue( AVerification.isValid( o ) );
+
+			o.other = -1;
+			Assert.assertFalse( verificator.isValid( o ) );
+		}
+		finally
+		{
+			ConstraintRegistry.register( Max.class, MaxVerificator.class );
+		}
+	}
+
+	@Test
+	public void testFailureFallsBack( )
+	{
+		// Left to the reflective evaluation instead of failing the plan
+		List<Constraint> broken = new ArrayList<Constraint>( );
+		broken.add( null );
+		Assert.assertNull( new GeneratedVerificatorFactory( ).create( Sample.class, broken ) );
+	}
+
+	private static ClassVerificator create( Object o ) throws Exception
+	{
+		ClassVerificator verificator = new GeneratedVerificatorFactory( ).create( o.getClass( ), constraints( o ) );
+		Assert.assertNotNull( verificator );
+		return verificator;
+	}
+
+	private static List<Constraint> constraints( Object o ) throws Exception
+	{
+		java.lang.reflect.Method plan = Class.forName( "de.drost.annotation.VerificationPlan" )
+				.getDeclaredMethod( "of", Class.class );
+		plan.setAccessible( true );
+		Object p = plan.invoke( null, o.getClass( ) );
+		java.lang.reflect.Field f = p.getClass( ).getDeclaredField( "constraints" );
+		f.setAccessible( true );
+
+		List<Constraint> constraints = new ArrayList<Constraint>( );
+		for( Constraint c : (Constraint[]) f.get( p ) )
+			constraints.add( c );
+		return constraints;
+	}
+
+	private static void assertSame( ClassVerificator verificator, Object o ) throws Exception
+	{
+		long[] failures = new long[1];
+		verificator.verify( o, failures );
+
+		for( Constraint c : constraints( o ) )
+		{
+			boolean passed = ( failures[0] & ( 1L << c.getIndex( ) ) ) == 0;
+			Assert.assertEquals( c.toString( ), c.test( o ), passed );
+		}
+	}
+
+	static class Wide
+	{
+		@Min(0) int v00; @Min(0) int v01; @Min(0) int v02; @Min(0) int v03; @Min(0) int v04;
+		@Min(0) int v05; @Min(0) int v06; @Min(0) int v07; @Min(0) int v08; @Min(0) int v09;
+		@Min(0) int v10; @Min(0) int v11; @Min(0) int v12; @Min(0) int v13; @Min(0) int v14;
+		@Min(0) int v15; @Min(0) int v16; @Min(0) int v17; @Min(0) int v18; @Min(0) int v19;
+		@Min(0) int v20; @Min(0) int v21; @Min(0) int v22; @Min(0) int v23; @Min(0) int v24;
+		@Min(0) int v25; @Min(0) int v26; @Min(0) int v27; @Min(0) int v28; @Min(0) int v29;
+		@Min(0) int v30; @Min(0) int v31; @Min(0) int v32; @Min(0) int v33; @Min(0) int v34;
+		@Min(0) int v35; @Min(0) int v36; @Min(0) int v37; @Min(0) int v38; @Min(0) int v39;
+		@Min(0) int v40; @Min(0) int v41; @Min(0) int v42; @Min(0) int v43; @Min(0) int v44;
+		@Min(0) int v45; @Min(0) int v46; @Min(0) int v47; @Min(0) int v48; @Min(0) int v49;
+		@Min(0) int v50; @Min(0) int v51; @Min(0) int v52; @Min(0) int v53; @Min(0) int v54;
+		@Min(0) int v55; @Min(0) int v56; @Min(0) int v57; @Min(0) int v58; @Min(0) int v59;
+		@Min(0) int v60; @Min(0) int v61; @Min(0) int v62; @Min(0) int v63; @Min(0) int v64;
+		@Min(0) int v65; @Min(0) int v66; @Min(0) int v67; @Min(0) int v68; @Min(0) int v69;
+	}
+}
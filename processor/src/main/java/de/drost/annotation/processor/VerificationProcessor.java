@@ -0,0 +1,880 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+import de.drost.annotation.prove.DecimalMax;
+import de.drost.annotation.prove.DecimalMin;
+import de.drost.annotation.prove.Interval;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.prove.MaxSize;
+import de.drost.annotation.prove.Min;
+import de.drost.annotation.prove.MinSize;
+import de.drost.annotation.prove.NotNull;
+import de.drost.annotation.support.Getter;
+import de.drost.annotation.support.Setter;
+
+/**
+ * Annotation processor generating a verificator class {@code Foo$$Validator}
+ * for each class {@code Foo} declaring fields with verification annotations.
+ * The generated class checks all constraints by plain field access and is
+ * picked up by {@code AVerification.verify} automatically, so the class does
+ * not have to be compiled at runtime.
+ * <p>
+ * The processor also reports annotations that can never be evaluated, like
+ * {@code @Min} on a {@code String} or {@code @MaxSize} on an {@code int}, as
+ * compile errors. Classes with private constrained fields are skipped and
+ * remain to be verified at runtime, unless the fields are read by a
+ * {@link Getter}. Annotations of validation groups other than the default
+ * one are left to the plans built at runtime as well.
+ * <p>
+ * Constrained fields inherited from super classes are checked as well, the
+ * ones not accessible from the package of the class by delegating to the
+ * evaluation at runtime.
+ * <p>
+ * For each field annotated with {@link Setter} the verificator class also
+ * gets a static guarded setter of that name, which rejects values violating
+ * the annotations of the field by a {@code VerificationException} before
+ * assigning them. The setter of the class itself may delegate to it.
+ * 
+ * @author kimschorat
+ *
+ */
+@SupportedAnnotationTypes( "de.drost.annotation.prove.*" )
+public class VerificationProcessor extends AbstractProcessor
+{
+	/**
+	 * The suffix of the generated class names, as expected by the runtime.
+	 */
+	static final String										SUFFIX			= "$$Validator";
+
+	private static final List<Class<? extends Annotation>>	CONSTRAINTS		= Arrays.asList( Interval.class,
+			Max.class, Min.class, MaxSize.class, MinSize.class, NotNull.class, DecimalMax.class, DecimalMin.class );
+
+	private static final double								LONG_RANGE		= 0x1p63;
+
+	private static final String								SIZES			= "de.drost.annotation.verification.Sizes";
+
+	private static final String								DEFAULT			= "de.drost.annotation.Default";
+
+	private static final String								VERIFICATION	= "de.drost.annotation.AnnotationVerification";
+
+	/**
+	 * The cost of a check delegated to the evaluation at runtime.
+	 */
+	private static final int								DELEGATED		= 4;
+
+	@Override
+	public SourceVersion getSupportedSourceVersion( )
+	{
+		return SourceVersion.latestSupported( );
+	}
+
+	@Override
+	public boolean process( Set<? extends TypeElement> annotations, RoundEnvironment roundEnv )
+	{
+		Set<TypeElement> types = new LinkedHashSet<TypeElement>( );
+
+		for( Class<? extends Annotation> a : CONSTRAINTS )
+		{
+			for( Element e : roundEnv.getElementsAnnotatedWith( a ) )
+			{
+				if( e.getKind( ) == ElementKind.FIELD )
+				{
+					types.add( (TypeElement) e.getEnclosingElement( ) );
+				}
+			}
+		}
+
+		// Classes only inheriting constrained fields
+		for( TypeElement type : ElementFilter.typesIn( roundEnv.getRootElements( ) ) )
+		{
+			if( type.getKind( ) == ElementKind.CLASS && !inherited( type ).isEmpty( ) )
+				types.add( type );
+		}
+
+		for( TypeElement type : types )
+		{
+			process( type );
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks the constraints of one class and generates its verificator.
+	 */
+	private void process( TypeElement type )
+	{
+		Messager messager = processingEnv.getMessager( );
+
+		List<VariableElement> fields = new ArrayList<VariableElement>( );
+		for( VariableElement f : ElementFilter.fieldsIn( type.getEnclosedElements( ) ) )
+		{
+			if( !constraints( f ).isEmpty( ) )
+				fields.add( f );
+		}
+
+		boolean valid = true;
+		for( VariableElement f : fields )
+		{
+			valid &= check( f );
+		}
+
+		if( !valid )
+			return;
+
+		String reason = unsupported( type, fields );
+		if( reason != null )
+		{
+			messager.printMessage( Diagnostic.Kind.NOTE,
+					type.getSimpleName( ) + " is verified at runtime, " + reason, type );
+			return;
+		}
+
+		// Inherited fields are checked along with their own class
+		List<VariableElement> all = inherited( type );
+		all.addAll( fields );
+
+		try
+		{
+			generate( type, all );
+		}
+		catch( IOException e )
+		{
+			messager.printMessage( Diagnostic.Kind.ERROR, "Failed to generate the verificator: " + e, type );
+		}
+	}
+
+	/**
+	 * Collects the constrained fields of all super classes of the specified
+	 * class, starting with the topmost one like the plans built at runtime.
+	 */
+	private List<VariableElement> inherited( TypeElement type )
+	{
+		List<VariableElement> fields = new ArrayList<VariableElement>( );
+
+		TypeMirror t = type.getSuperclass( );
+		while( t.getKind( ) == TypeKind.DECLARED )
+		{
+			TypeElement superclass = (TypeElement) processingEnv.getTypeUtils( ).asElement( t );
+			if( superclass.getQualifiedName( ).contentEquals( "java.lang.Object" ) )
+				break;
+
+			List<VariableElement> declared = new ArrayList<VariableElement>( );
+			for( VariableElement f : ElementFilter.fieldsIn( superclass.getEnclosedElements( ) ) )
+			{
+				if( !constraints( f ).isEmpty( ) )
+					declared.add( f );
+			}
+			fields.addAll( 0, declared );
+
+			t = superclass.getSuperclass( );
+		}
+		return fields;
+	}
+
+	/**
+	 * Checks whether the generated class, which is placed in the package of
+	 * the verified class, is able to read an inherited field directly.
+	 */
+	private boolean isAccessible( TypeElement type, VariableElement f )
+	{
+		Set<Modifier> modifiers = f.getModifiers( );
+		if( modifiers.contains( Modifier.PRIVATE ) || f.getAnnotation( Getter.class ) != null )
+			return false;
+		if( modifiers.contains( Modifier.PUBLIC ) )
+			return true;
+
+		Elements elements = processingEnv.getElementUtils( );
+		return elements.getPackageOf( f ).equals( elements.getPackageOf( type ) );
+	}
+
+	/**
+	 * Reports verification annotations that do not apply to the type of the
+	 * annotated field.
+	 * 
+	 * @return {@code true} if all annotations of the field are applicable.
+	 */
+	private boolean check( VariableElement f )
+	{
+		Messager messager = processingEnv.getMessager( );
+		TypeMirror t = f.asType( );
+		boolean valid = true;
+
+		for( AnnotationMirror m : constraints( f ) )
+		{
+			String name = m.getAnnotationType( ).asElement( ).getSimpleName( ).toString( );
+
+			if( name.equals( "Min" ) || name.equals( "Max" ) || name.equals( "Interval" )
+					|| name.equals( "DecimalMin" ) || name.equals( "DecimalMax" ) )
+			{
+				if( !isNumeric( t ) )
+				{
+					messager.printMessage( Diagnostic.Kind.ERROR,
+							"@" + name + " is only applicable to numeric fields, not to " + t, f, m );
+					valid = false;
+				}
+			}
+			else if( name.equals( "MinSize" ) || name.equals( "MaxSize" ) )
+			{
+				if( t.getKind( ).isPrimitive( ) || isBoxed( t ) )
+				{
+					messager.printMessage( Diagnostic.Kind.ERROR,
+							"@" + name + " is only applicable to arrays, collections, maps and strings, not to " + t, f,
+							m );
+					valid = false;
+				}
+			}
+			else if( name.equals( "NotNull" ) && t.getKind( ).isPrimitive( ) )
+			{
+				messager.printMessage( Diagnostic.Kind.WARNING, "@NotNull has no effect on primitive fields", f, m );
+			}
+		}
+
+		Interval interval = f.getAnnotation( Interval.class );
+		if( interval != null && interval.min( ) > interval.max( ) )
+		{
+			messager.printMessage( Diagnostic.Kind.ERROR,
+					"@Interval with min " + interval.min( ) + " greater than max " + interval.max( ), f );
+			valid = false;
+		}
+
+		DecimalMin decimalMin = f.getAnnotation( DecimalMin.class );
+		if( decimalMin != null )
+			valid &= checkDecimal( f, decimalMin.value( ) );
+
+		DecimalMax decimalMax = f.getAnnotation( DecimalMax.class );
+		if( decimalMax != null )
+			valid &= checkDecimal( f, decimalMax.value( ) );
+
+		Getter getter = f.getAnnotation( Getter.class );
+		if( getter != null && getter( f ) == null )
+		{
+			messager.printMessage( Diagnostic.Kind.ERROR, "@Getter names no accessible method " + getter.name( )
+					+ "( ) returning " + t + " without throwing checked exceptions", f );
+			valid = false;
+		}
+
+		Setter setter = f.getAnnotation( Setter.class );
+		if( setter != null )
+		{
+			if( !SourceVersion.isIdentifier( setter.name( ) ) || SourceVersion.isKeyword( setter.name( ) ) )
+			{
+				messager.printMessage( Diagnostic.Kind.ERROR, "@Setter names no valid method: " + setter.name( ), f );
+				valid = false;
+			}
+			else if( getter != null )
+			{
+				// The getter may transform the value, which the setter cannot check
+				messager.printMessage( Diagnostic.Kind.ERROR,
+						"@Setter cannot be combined with @Getter, whose value is verified instead", f );
+				valid = false;
+			}
+			else if( f.getModifiers( ).contains( Modifier.FINAL ) || f.getModifiers( ).contains( Modifier.STATIC ) )
+			{
+				messager.printMessage( Diagnostic.Kind.WARNING,
+						"@Setter has no effect on final or static fields", f );
+			}
+		}
+
+		return valid;
+	}
+
+	/**
+	 * Checks that the bound of a decimal constraint is a decimal number.
+	 */
+	private boolean checkDecimal( VariableElement f, String bound )
+	{
+		try
+		{
+			new BigDecimal( bound.trim( ) );
+			return true;
+		}
+		catch( NumberFormatException e )
+		{
+			processingEnv.getMessager( ).printMessage( Diagnostic.Kind.ERROR, "Invalid decimal bound: " + bound, f );
+			return false;
+		}
+	}
+
+	/**
+	 * Finds the getter named by {@link Getter} of the specified field, which
+	 * has to be visible to the generated class.
+	 * 
+	 * @return The getter or {@code null} if it is not declared.
+	 */
+	private ExecutableElement getter( VariableElement f )
+	{
+		String name = f.getAnnotation( Getter.class ).name( );
+		Types types = processingEnv.getTypeUtils( );
+
+		for( ExecutableElement m : ElementFilter.methodsIn( f.getEnclosingElement( ).getEnclosedElements( ) ) )
+		{
+			if( m.getSimpleName( ).contentEquals( name ) && m.getParameters( ).isEmpty( )
+					&& m.getThrownTypes( ).isEmpty( ) && !m.getModifiers( ).contains( Modifier.PRIVATE )
+					&& m.getModifiers( ).contains( Modifier.STATIC ) == f.getModifiers( ).contains( Modifier.STATIC )
+					&& types.isSameType( m.getReturnType( ), f.asType( ) ) )
+				return m;
+		}
+		return null;
+	}
+
+	/**
+	 * Checks whether the generated class is able to access the type and its
+	 * constrained fields.
+	 * 
+	 * @return The reason why the class is not supported or {@code null}.
+	 */
+	private static String unsupported( TypeElement type, List<VariableElement> fields )
+	{
+		for( Element e = type; e.getKind( ) != ElementKind.PACKAGE; e = e.getEnclosingElement( ) )
+		{
+			if( !( e instanceof TypeElement ) )
+				return "because it is a local class";
+
+			TypeElement t = (TypeElement) e;
+			if( t.getNestingKind( ) == NestingKind.LOCAL || t.getNestingKind( ) == NestingKind.ANONYMOUS )
+				return "because it is a local class";
+			if( t.getModifiers( ).contains( Modifier.PRIVATE ) )
+				return "because " + t.getSimpleName( ) + " is private";
+		}
+
+		for( VariableElement f : fields )
+		{
+			// Private fields are only read by their getter, but never written
+			if( f.getModifiers( ).contains( Modifier.PRIVATE )
+					&& ( f.getAnnotation( Getter.class ) == null || f.getAnnotation( Setter.class ) != null ) )
+				return "because the field '" + f.getSimpleName( ) + "' is private";
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the source of the verificator class.
+	 */
+	private void generate( TypeElement type, List<VariableElement> fields ) throws IOException
+	{
+		Elements elements = processingEnv.getElementUtils( );
+		PackageElement pkg = elements.getPackageOf( type );
+
+		String binaryName = elements.getBinaryName( type ).toString( );
+		String simpleName = ( pkg.isUnnamed( ) ? binaryName
+				: binaryName.substring( pkg.getQualifiedName( ).length( ) + 1 ) ) + SUFFIX;
+		String typeName = type.getQualifiedName( ).toString( );
+
+		List<String> layout = new ArrayList<String>( );
+		List<Check> checks = new ArrayList<Check>( );
+
+		for( VariableElement f : fields )
+		{
+			for( AnnotationMirror m : constraints( f ) )
+			{
+				// Other validation groups are verified at runtime
+				if( !isDefault( m ) )
+					continue;
+
+				int k = layout.size( );
+				String annotationType = elements
+						.getBinaryName( (TypeElement) m.getAnnotationType( ).asElement( ) ).toString( );
+				TypeElement owner = (TypeElement) f.getEnclosingElement( );
+				layout.add( ( owner.equals( type ) ? "" : elements.getBinaryName( owner ) + "." ) + f.getSimpleName( )
+						+ "@" + annotationType );
+
+				Check check = owner.equals( type ) || isAccessible( type, f ) ? check( typeName, f, m, k )
+						: delegate( f, m, k );
+				if( check != null )
+					checks.add( check );
+			}
+		}
+
+		// The fail-fast check evaluates cheap constraints first
+		List<Check> failFast = new ArrayList<Check>( checks );
+		Collections.sort( failFast, new Comparator<Check>( )
+		{
+			@Override
+			public int compare( Check a, Check b )
+			{
+				return Integer.compare( a.cost, b.cost );
+			}
+		} );
+
+		StringBuilder source = new StringBuilder( );
+		source.append( "// Generated by " ).append( getClass( ).getName( ) ).append( ", do not edit.\n" );
+		if( !pkg.isUnnamed( ) )
+		{
+			source.append( "package " ).append( pkg.getQualifiedName( ) ).append( ";\n" );
+		}
+		source.append( "\n" );
+		source.append( "@SuppressWarnings( { \"rawtypes\", \"unused\" } )\n" );
+		source.append( "public final class " ).append( simpleName )
+				.append( " implements de.drost.annotation.ClassVerificator\n{\n" );
+		source.append( "\tpublic static final String[] CONSTRAINTS = {\n" );
+		for( String key : layout )
+		{
+			source.append( "\t\t\"" ).append( key ).append( "\",\n" );
+		}
+		source.append( "\t};\n\n" );
+		source.append( "\tprivate final de.drost.annotation.Constraint[] constraints;\n\n" );
+		source.append( "\tpublic " ).append( simpleName )
+				.append( "( de.drost.annotation.Constraint[] constraints )\n\t{\n" );
+		source.append( "\t\tthis.constraints = constraints;\n\t}\n\n" );
+		source.append( "\t@Override\n\tpublic void verify( Object o, long[] failures )\n\t{\n" );
+		source.append( "\t\t" ).append( typeName ).append( " t = (" ).append( typeName ).append( ") o;\n" );
+		for( Check check : checks )
+		{
+			source.append( "\n\t\t// " ).append( check.comment ).append( '\n' );
+			source.append( "\t\tif( " ).append( check.violation ).append( " )\n" );
+			source.append( "\t\t\tfail( failures, " ).append( check.index ).append( " );\n" );
+		}
+		source.append( "\t}\n\n" );
+		source.append( "\t@Override\n\tpublic boolean isValid( Object o )\n\t{\n" );
+		source.append( "\t\t" ).append( typeName ).append( " t = (" ).append( typeName ).append( ") o;\n" );
+		for( Check check : failFast )
+		{
+			source.append( "\t\tif( " ).append( check.violation ).append( " )\n" );
+			source.append( "\t\t\treturn false;\n" );
+		}
+		source.append( "\t\treturn true;\n\t}\n\n" );
+		source.append( "\tprivate void fail( long[] failures, int constraint )\n\t{\n" );
+		source.append( "\t\tint i = constraints[constraint].getIndex( );\n" );
+		source.append( "\t\tfailures[i >>> 6] |= 1L << i;\n\t}\n" );
+
+		for( VariableElement f : fields )
+		{
+			if( f.getEnclosingElement( ).equals( type ) && f.getAnnotation( Setter.class ) != null
+					&& !f.getModifiers( ).contains( Modifier.FINAL )
+					&& !f.getModifiers( ).contains( Modifier.STATIC ) )
+			{
+				setter( source, typeName, f );
+			}
+		}
+		source.append( "}\n" );
+
+		String generatedName = pkg.isUnnamed( ) ? simpleName : pkg.getQualifiedName( ) + "." + simpleName;
+		Writer writer = processingEnv.getFiler( ).createSourceFile( generatedName, type ).openWriter( );
+		try
+		{
+			writer.write( source.toString( ) );
+		}
+		finally
+		{
+			writer.close( );
+		}
+	}
+
+	/**
+	 * Writes the guarded setter of one field, which checks the new value by
+	 * the same conditions as the verificator. If a constraint of the field is
+	 * delegated, the whole setter delegates to {@code AVerification.set}.
+	 */
+	private void setter( StringBuilder source, String typeName, VariableElement f )
+	{
+		String name = f.getSimpleName( ).toString( );
+
+		List<Check> checks = new ArrayList<Check>( );
+		boolean delegated = false;
+		for( AnnotationMirror m : constraints( f ) )
+		{
+			if( !isDefault( m ) )
+				continue;
+
+			Check check = checkValue( "value", f, m, checks.size( ) );
+			if( check != null )
+			{
+				checks.add( check );
+				delegated |= check.cost == DELEGATED;
+			}
+		}
+
+		source.append( "\n\t/**\n\t * Assigns the field '" ).append( name )
+				.append( "' after verifying the new value.\n\t */\n" );
+		source.append( "\tpublic static void " ).append( f.getAnnotation( Setter.class ).name( ) ).append( "( " )
+				.append( typeName ).append( " t, " ).append( f.asType( ) ).append( " value )\n\t{\n" );
+
+		if( delegated )
+		{
+			source.append( "\t\ttry\n\t\t{\n" );
+			source.append( "\t\t\tde.drost.annotation.AVerification.set( t, \"" ).append( name )
+					.append( "\", value );\n" );
+			source.append( "\t\t}\n" );
+			source.append( "\t\tcatch( InstantiationException | IllegalAccessException | NoSuchFieldException e )\n" );
+			source.append( "\t\t{\n\t\t\tthrow new IllegalStateException( e );\n\t\t}\n\t}\n" );
+			return;
+		}
+
+		for( Check check : checks )
+		{
+			source.append( "\t\t// " ).append( check.comment ).append( '\n' );
+			source.append( "\t\tif( " ).append( check.violation ).append( " )\n" );
+			source.append( "\t\t\tthrow new de.drost.annotation.VerificationException( \"" ).append( name )
+					.append( "\", value, " ).append( check.annotation ).append( ".class );\n" );
+		}
+		source.append( "\t\tt." ).append( name ).append( " = value;\n\t}\n" );
+	}
+
+	/**
+	 * The generated check of one constraint.
+	 */
+	private static final class Check
+	{
+		final String	comment;
+		final String	violation;
+		final int		index;
+
+		/**
+		 * The qualified name of the checked annotation type.
+		 */
+		final String	annotation;
+
+		/**
+		 * The estimated cost of the check, from null checks to delegated
+		 * evaluations.
+		 */
+		final int		cost;
+
+		Check( String comment, String violation, int index, String annotation, int cost )
+		{
+			this.comment = comment;
+			this.violation = violation;
+			this.index = index;
+			this.annotation = annotation;
+			this.cost = cost;
+		}
+	}
+
+	/**
+	 * Generates the check of one constraint of the field of the verified
+	 * object.
+	 * 
+	 * @return The check or {@code null} if the constraint is never violated.
+	 */
+	private Check check( String typeName, VariableElement f, AnnotationMirror m, int k )
+	{
+		String owner = f.getModifiers( ).contains( Modifier.STATIC ) ? typeName : "t";
+		Getter getter = f.getAnnotation( Getter.class );
+
+		if( getter != null )
+			return checkValue( owner + "." + getter.name( ) + "( )", f, m, k );
+		return checkValue( owner + "." + f.getSimpleName( ), f, m, k );
+	}
+
+	/**
+	 * Generates the check of one constraint for the specified value.
+	 * 
+	 * @param value
+	 *            The expression reading the value to be checked.
+	 * @return The check or {@code null} if the constraint is never violated.
+	 */
+	private Check checkValue( String value, VariableElement f, AnnotationMirror m, int k )
+	{
+		TypeMirror t = f.asType( );
+		String annotation = ( (TypeElement) m.getAnnotationType( ).asElement( ) ).getQualifiedName( ).toString( );
+		String name = m.getAnnotationType( ).asElement( ).getSimpleName( ).toString( );
+		String comment = f.getSimpleName( ) + " @" + name;
+
+		String violation = null;
+		int cost = t.getKind( ).isPrimitive( ) ? 1 : 2;
+
+		if( name.equals( "NotNull" ) )
+		{
+			if( t.getKind( ).isPrimitive( ) )
+				return null;
+			violation = value + " == null";
+			cost = 0;
+		}
+		else if( name.equals( "Min" ) )
+		{
+			violation = bounds( t, value, f.getAnnotation( Min.class ).value( ), Double.NaN );
+		}
+		else if( name.equals( "Max" ) )
+		{
+			violation = bounds( t, value, Double.NaN, f.getAnnotation( Max.class ).value( ) );
+		}
+		else if( name.equals( "Interval" ) )
+		{
+			Interval interval = f.getAnnotation( Interval.class );
+			violation = bounds( t, value, interval.min( ), interval.max( ) );
+		}
+		else if( name.equals( "MinSize" ) )
+		{
+			violation = size( t, value, "<", f.getAnnotation( MinSize.class ).value( ) );
+			cost = 3;
+		}
+		else if( name.equals( "MaxSize" ) )
+		{
+			violation = size( t, value, ">", f.getAnnotation( MaxSize.class ).value( ) );
+			cost = 3;
+		}
+
+		if( violation == null )
+		{
+			return delegate( f, m, k );
+		}
+		else if( violation.isEmpty( ) )
+		{
+			return null;
+		}
+		return new Check( comment, violation, k, annotation, cost );
+	}
+
+	/**
+	 * Generates the check delegating to the evaluation of the constraint at
+	 * runtime.
+	 */
+	private static Check delegate( VariableElement f, AnnotationMirror m, int k )
+	{
+		TypeElement annotation = (TypeElement) m.getAnnotationType( ).asElement( );
+		return new Check( f.getSimpleName( ) + " @" + annotation.getSimpleName( ), "!constraints[" + k + "].test( o )",
+				k, annotation.getQualifiedName( ).toString( ), DELEGATED );
+	}
+
+	/**
+	 * Generates the condition violating the bounds of a numeric field, which
+	 * matches the comparison of the verificators of the numeric annotations.
+	 * 
+	 * @return The condition, an empty string if the bounds are never violated
+	 *         or {@code null} if the check has to be delegated.
+	 */
+	private String bounds( TypeMirror t, String value, double min, double max )
+	{
+		TypeKind kind = t.getKind( );
+
+		if( kind == TypeKind.DECLARED )
+		{
+			String boxed = processingEnv.getTypeUtils( ).erasure( t ).toString( );
+			if( boxed.equals( "java.lang.Long" ) || boxed.equals( "java.lang.Integer" )
+					|| boxed.equals( "java.lang.Short" ) || boxed.equals( "java.lang.Byte" ) )
+			{
+				return or( value + " == null", longBounds( value + ".longValue( )", min, max ) );
+			}
+			if( boxed.equals( "java.lang.Double" ) || boxed.equals( "java.lang.Float" ) )
+			{
+				return or( value + " == null", doubleBounds( value + ".doubleValue( )", min, max ) );
+			}
+			return null;
+		}
+
+		if( kind == TypeKind.LONG )
+			return longBounds( value, min, max );
+
+		return doubleBounds( value, min, max );
+	}
+
+	private static String longBounds( String value, double min, double max )
+	{
+		if( min >= LONG_RANGE || max < -LONG_RANGE )
+			return "true";
+
+		String violation = "";
+		if( !( min <= -LONG_RANGE || Double.isNaN( min ) ) )
+		{
+			violation = or( violation, value + " < " + (long) Math.ceil( min ) + "L" );
+		}
+		if( !( max >= LONG_RANGE || Double.isNaN( max ) ) )
+		{
+			violation = or( violation, value + " > " + (long) Math.floor( max ) + "L" );
+		}
+		return violation;
+	}
+
+	private static String doubleBounds( String value, double min, double max )
+	{
+		String violation = "";
+		if( !Double.isNaN( min ) )
+		{
+			violation = or( violation, value + " < " + literal( min ) );
+		}
+		if( !Double.isNaN( max ) )
+		{
+			violation = or( violation, value + " > " + literal( max ) );
+		}
+		return violation;
+	}
+
+	/**
+	 * Generates the condition violating the size bound of an array, character
+	 * sequence, collection, map or iterable field. Collections, maps and
+	 * iterables are only probed up to the bound at runtime.
+	 * 
+	 * @return The condition or {@code null} if the check has to be delegated.
+	 */
+	private String size( TypeMirror t, String value, String operator, long bound )
+	{
+		// One more element than allowed decides a maximum
+		long limit = ( operator.equals( ">" ) && bound < Long.MAX_VALUE ) ? bound + 1 : bound;
+
+		String size;
+		if( t.getKind( ) == TypeKind.ARRAY )
+			size = value + ".length";
+		else if( isSubtype( t, "java.lang.CharSequence" ) )
+			size = value + ".length( )";
+		else if( isSubtype( t, "java.util.Collection" ) || isSubtype( t, "java.util.Map" ) )
+			size = SIZES + ".of( " + value + ", " + limit + "L )";
+		else if( isSubtype( t, "java.lang.Iterable" ) )
+			size = SIZES + ".count( " + value + ".iterator( ), " + limit + "L )";
+		else
+			return null;
+
+		return value + " == null || " + size + " " + operator + " " + bound + "L";
+	}
+
+	private static String or( String a, String b )
+	{
+		if( a.isEmpty( ) || b.isEmpty( ) )
+			return a + b;
+		return a + " || " + b;
+	}
+
+	private static String literal( double d )
+	{
+		if( d == Double.POSITIVE_INFINITY )
+			return "Double.POSITIVE_INFINITY";
+		if( d == Double.NEGATIVE_INFINITY )
+			return "Double.NEGATIVE_INFINITY";
+		return Double.toString( d );
+	}
+
+	/**
+	 * Returns the verification annotations of the specified field, which are
+	 * the annotations of this library and all annotations meta-annotated with
+	 * {@code AnnotationVerification}. The latter are delegated to the
+	 * evaluation at runtime.
+	 */
+	private List<AnnotationMirror> constraints( VariableElement f )
+	{
+		List<AnnotationMirror> mirrors = new ArrayList<AnnotationMirror>( );
+		for( AnnotationMirror m : f.getAnnotationMirrors( ) )
+		{
+			TypeElement type = (TypeElement) m.getAnnotationType( ).asElement( );
+			if( isConstraint( type ) )
+				mirrors.add( m );
+		}
+		return mirrors;
+	}
+
+	private static boolean isConstraint( TypeElement type )
+	{
+		String name = type.getQualifiedName( ).toString( );
+		for( Class<? extends Annotation> c : CONSTRAINTS )
+		{
+			if( c.getName( ).equals( name ) )
+				return true;
+		}
+
+		for( AnnotationMirror meta : type.getAnnotationMirrors( ) )
+		{
+			if( ( (TypeElement) meta.getAnnotationType( ).asElement( ) ).getQualifiedName( )
+					.contentEquals( VERIFICATION ) )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether the annotation is verified by the default validation
+	 * group, which is the case if it declares no groups or a super type of
+	 * the {@code Default} group.
+	 */
+	private boolean isDefault( AnnotationMirror m )
+	{
+		for( Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : m.getElementValues( ).entrySet( ) )
+		{
+			if( !e.getKey( ).getSimpleName( ).contentEquals( "groups" ) )
+				continue;
+
+			List<?> groups = (List<?>) e.getValue( ).getValue( );
+			if( groups.isEmpty( ) )
+				return true;
+
+			for( Object group : groups )
+			{
+				if( isSubtype( processingEnv.getElementUtils( ).getTypeElement( DEFAULT ).asType( ),
+						( (TypeMirror) ( (AnnotationValue) group ).getValue( ) ).toString( ) ) )
+					return true;
+			}
+			return false;
+		}
+		return true;
+	}
+
+	private boolean isNumeric( TypeMirror t )
+	{
+		if( t.getKind( ).isPrimitive( ) )
+			return t.getKind( ) != TypeKind.BOOLEAN;
+		return isSubtype( t, "java.lang.Number" );
+	}
+
+	private boolean isBoxed( TypeMirror t )
+	{
+		if( t.getKind( ) != TypeKind.DECLARED )
+			return false;
+
+		try
+		{
+			return processingEnv.getTypeUtils( ).unboxedType( t ) != null;
+		}
+		catch( IllegalArgumentException e )
+		{
+			return false;
+		}
+	}
+
+	private boolean isSubtype( TypeMirror t, String name )
+	{
+		Types types = processingEnv.getTypeUtils( );
+		TypeElement e = processingEnv.getElementUtils( ).getTypeElement( name );
+		return e != null && types.isAssignable( types.erasure( t ), types.erasure( e.asType( ) ) );
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * This file is part of the application library that simplifies common
+ * initialization and helps setting up any java program.
+ * 
+ * Copyright (C) 2016 Yannick Drost, all rights reserved.
+ * 
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * 
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU General Public License along with
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package de.drost.annotation.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import de.drost.annotation.AVerification;
+import de.drost.annotation.ConstraintRegistry;
+import de.drost.annotation.VerificationException;
+import de.drost.annotation.Verificator;
+import de.drost.annotation.prove.Max;
+import de.drost.annotation.verification.MaxVerificator;
+
+public class VerificationProcessorTest
+{
+	private File								output;
+	private DiagnosticCollector<JavaFileObject>	diagnostics;
+
+	@Before
+	public void setUp( ) throws IOException
+	{
+		output = Files.createTempDirectory( "processor" ).toFile( );
+		diagnostics = new DiagnosticCollector<JavaFileObject>( );
+	}
+
+	@Test
+	public void testGeneratedValidator( ) throws Exception
+	{
+		Assert.assertTrue( compile( "sample.Account",
+				"package sample;\n"
+						+ "import de.drost.annotation.prove.*;\n"
+						+ "public class Account {\n"
+						+ "  @Min(0) public long balance;\n"
+						+ "  @Interval(min=1, max=120) int age = 30;\n"
+						+ "  @NotNull @MinSize(3) @MaxSize(16) String name = \"anna\";\n"
+						+ "  @Max(10) Double ratio = 1.0;\n"
+						+ "  @MinSize(1) @MaxSize(2) public int[] codes = { 1 };\n"
+						+ "  @MaxSize(1) java.util.Map<String, String> limits = new java.util.HashMap<>();\n"
+						+ "  @NotNull(groups=Account.Create.class) Long id;\n"
+						+ "  public interface Create {}\n"
+						+ "}\n" ) );
+
+		Assert.assertTrue( new File( output, "sample/Account$$Validator.class" ).isFile( ) );
+
+		URLClassLoader loader = new URLClassLoader( new URL[] { output.toURI( ).toURL( ) },
+				getClass( ).getClassLoader( ) );
+		Class<?> type = loader.loadClass( "sample.Account" );
+		Object account = type.getConstructor( ).newInstance( );
+
+		Assert.assertTrue( AVerification.verify( account ).passedAll( ) );
+		Assert.assertTrue( AVerification.isValid( account ) );
+
+		type.getField( "balance" ).setLong( account, -1 );
+		Assert.assertFalse( AVerification.verify( account ).passedAll( ) );
+		Assert.assertFalse( AVerification.isValid( account ) );
+		Assert.assertEquals( 1, AVerification.verify( account ).getViolations( ).size( ) );
+
+		type.getField( "codes" ).set( account, new int[3] );
+		Assert.assertEquals( 2, AVerification.verify( account ).getViolations( ).size( ) );
+
+		loader.close( );
+	}
+
+	@Test
+	public void testMisuseIsReported( ) throws IOException
+	{
+		Assert.assertFalse( compile( "sample.Broken",
+				"package sample;\n"
+						+ "import de.drost.annotation.prove.*;\n"
+						+ "public class Broken {\n"
+						+ "  @Min(0) String name;\n"
+						+ "  @MaxSize(3) int count;\n"
+						+ "  @Interval(min=10, max=0) int range;\n"
+						+ "  @DecimalMin(\"1.o\") long limit;\n"
+						+ "  @DecimalMax(\"1\") String text;\n"
+						+ "  @NotNull @de.drost.annotation.support.Getter(name=\"both\")"
+						+ " @de.drost.annotation.support.Setter(name=\"setBoth\") Object both;\n"
+						+ "  Object both() { return both; }\n"
+						+ "}\n" ) );
+
+		int errors = 0;
+		for( Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics( ) )
+		{
+			if( d.getKind( ) == Diagnostic.Kind.ERROR )
+				errors++;
+		}
+		Assert.assertEquals( 6, errors );
+		Assert.assertFalse( new File( output, "sample/Broken$$Validator.class" ).exists( ) );
+	}
+
+	@Test
+	public void testPrivateFieldsAreSkipped( ) throws IOException
+	{
+		Assert.assertTrue( compile( "sample.Hidden",
+				"package sample;\n"
+						+ "import de.drost.annotation.prove.*;\n"
+						+ "public class Hidden {\n"
+						+ "  @NotNull private Object value;\n"
+						+ "}\n" ) );
+
+		Assert.assertFalse( new File( output, "sample/Hidden$$Validator.class" ).exists( ) );
+	}
+
+	@Test
+	public void testGuardedSetter( ) throws Exception
+	{
+		Assert.assertTrue( compile( "sample.Person",
+				"package sample;\n"
+						+ "import de.drost.annotation.prove.*;\n"
+						+ "import de.drost.annotation.support.*;\n"
+						+ "public class Person {\n"
+						+ "  @Interval(min=0, max=120) @Setter(name=\"setAge\") int age = 30;\n"
+						+ "  @MaxSize(3) @Getter(name=\"trimmed\") private String code = \" ab \";\n"
+						+ "  String trimmed() { return code.trim(); }\n"
+						+ "  public void setAge(int age) { Person$$Validator.setAge(this, age); }\n"
+						+ "  public void setCode(String code) { this.code = code; }\n"
+						+ "}\n" ) );
+
+		URLClassLoader loader = new URLClassLoader( new URL[] { output.toURI( ).toURL( ) },
+				getClass( ).getClassLoader( ) );
+		Class<?> type = loader.loadClass( "sample.Person" );
+		Object person = type.getConstructor( ).newInstance( );
+
+		type.getMethod( "setAge", int.class ).invoke( person, 120 );
+		try
+		{
+			type.getMethod( "setAge", int.class ).invoke( person, 121 );
+			Assert.fail( );
+		}
+		catch( InvocationTargetException e )
+		{
+			Assert.assertTrue( e.getCause( ) instanceof VerificationException );
+		}
+		Assert.assertTrue( AVerification.verify( person ).passedAll( ) );
+
+		// Verified by the getter, although the field is private
+		type.getMethod( "setCode", String.class ).invoke( person, " abcd " );
+		Assert.assertFalse( AVerification.isValid( person ) );
+
+		loader.close( );
+	}
+
+	@Test
+	public void testInheritedFields( ) throws Exception
+	{
+		Assert.assertTrue( compile( "sample.Order",
+				"package sample;\n"
+						+ "import de.drost.annotation.prove.*;\n"
+						+ "public class Order extends Base {\n"
+						+ "}\n"
+						+ "class Base {\n"
+						+ "  @NotNull public Long id = 1L;\n"
+						+ "  @Min(0) private int version;\n"
+						+ "}\n" ) );
+
+		Assert.assertTrue( new File( output, "sample/Order$$Validator.class" ).isFile( ) );
+
+		URLClassLoader loader = new URLClassLoader( new URL[] { output.toURI( ).toURL( ) },
+				getClass( ).getClassLoader( ) );
+		Class<?> type = loader.loadClass( "sample.Order" );
+		Object order = type.getConstructor( ).newInstance( );
+
+		Assert.assertTrue( AVerification.isValid( order ) );
+		java.lang.reflect.Field id = type.getSuperclass( ).getDeclaredField( "id" );
+		id.setAccessible( true );
+		id.set( order, null );
+		Assert.assertFalse( AVerification.isValid( order ) );
+		Assert.assertEquals( 1, AVerification.verify( order ).getViolations( ).size( ) );
+
+		loader.close( );
+	}
+
+	/**
+	 * Passes every value.
+	 */
+	public static class Lenient implements Verificator<Object, Max>
+	{
+		@Override
+		public boolean verify( Object value, Max annotation )
+		{
+			return true;
+		}
+	}
+
+	@Test
+	public void testRegisteredVerificatorSkipsValidator( ) throws Exception
+	{
+		Assert.assertTrue( compile( "sample.Limit",
+				"package sample;\n"
+						+ "import de.drost.annotation.prove.*;\n"
+						+ "public class Limit {\n"
+						+ "  @Max(0) public int value = 1;\n"
+						+ "}\n" ) );
+
+		URLClassLoader loader = new URLClassLoader( new URL[] { output.toURI( ).toURL( ) },
+				getClass( ).getClassLoader( ) );
+		ConstraintRegistry.register( Max.class, Lenient.class );
+		try
+		{
+			Object limit = loader.loadClass( "sample.Limit" ).getConstructor( ).newInstance( );
+			Assert.assertTrue( AVerification.verify( limit ).passedAll( ) );
+			Assert.assertTrue( AVerification.isValid( limit ) );
+		}
+		finally
+		{
+			ConstraintRegistry.register( Max.class, MaxVerificator.class );
+			loader.close( );
+		}
+	}
+
+	private boolean compile( String name, final String source ) throws IOException
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler( );
+		StandardJavaFileManager files = compiler.getStandardFileManager( diagnostics, null, null );
+
+		JavaFileObject file = new SimpleJavaFileObject(
+				URI( name.replace( '.', '/' ) + JavaFileObject.Kind.SOURCE.extension ), JavaFileObject.Kind.SOURCE )
+		{
+			@Override
+			public CharSequence getCharContent( boolean ignoreEncodingErrors )
+			{
+				return source;
+			}
+		};
+
+		List<String> options = Arrays.asList( "-d", output.getPath( ), "-classpath",
+				System.getProperty( "java.class.path" ) );
+
+		JavaCompiler.CompilationTask task = compiler.getTask( null, files, diagnostics, options, null,
+				Collections.singletonList( file ) );
+		task.setProcessors( Collections.singletonList( new VerificationProcessor( ) ) );
+
+		boolean success = task.call( );
+		files.close( );
+		return success;
+	}
+
+	private static java.net.URI URI( String path )
+	{
+		return java.net.URI.create( "string:///" + path );
+	}
+}